@@ -1,17 +1,12 @@
 package com.app.duolingo;
 
-import android.content.ContextWrapper;
 import android.content.Intent;
-import android.graphics.Bitmap;
-import android.graphics.drawable.Drawable;
 import android.net.Uri;
 import android.os.Bundle;
 
 import androidx.activity.result.ActivityResultCallback;
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
-import androidx.annotation.NonNull;
-import androidx.annotation.Nullable;
 import androidx.appcompat.widget.SwitchCompat;
 import androidx.fragment.app.Fragment;
 
@@ -24,20 +19,16 @@ import android.widget.ImageView;
 import android.widget.ProgressBar;
 import android.widget.Toast;
 import com.app.duolingo.models.User;
+import com.app.duolingo.services.LearningBackend;
+import com.app.duolingo.services.LearningBackends;
+import com.app.duolingo.services.ProfileImagePipeline;
+import com.app.duolingo.services.UserProfileRepository;
 
-import com.bumptech.glide.request.transition.Transition;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.storage.FirebaseStorage;
-import com.google.firebase.storage.StorageReference;
 
 import com.bumptech.glide.Glide;
-import com.bumptech.glide.request.target.CustomTarget;
 
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.OutputStream;
+import java.util.Map;
 
 public class AccountFragment extends Fragment {
 
@@ -45,12 +36,12 @@ public class AccountFragment extends Fragment {
     private Button buttonSave, buttonLogout;
     private String userId, imageUrl;
     private FirebaseAuth auth;
-    private FirebaseFirestore db;
-    private FirebaseStorage storage;
-    private StorageReference storageRef;
+    private LearningBackend backend;
+    private UserProfileRepository profiles;
     private SwitchCompat switchEdit;
     private ImageView imageViewProfilePicture;
-    private Uri fileUri;
+    // Set while a newly picked image waits to be saved
+    private Uri pickedImageUri;
 
     public AccountFragment() {
         // Required empty public constructor
@@ -87,8 +78,8 @@ public class AccountFragment extends Fragment {
         if (auth.getCurrentUser() != null) {
             userId = auth.getCurrentUser().getUid();
         }
-        db = FirebaseFirestore.getInstance();
-        storage = FirebaseStorage.getInstance();
+        backend = LearningBackends.get();
+        profiles = UserProfileRepository.getInstance(requireContext());
         initializeViews();
         setImageForUser();
         revertChanges();
@@ -116,61 +107,44 @@ public class AccountFragment extends Fragment {
     }
 
     private void setImageForUser() {
-        storageRef = storage.getReference().child("profile_images/" + userId + ".jpg");
-        storageRef.getDownloadUrl()
-                .addOnSuccessListener(uri -> {
-                    Glide.with(AccountFragment.this)
-                            .asBitmap()
-                            .load(uri)
-                            .into(new CustomTarget<Bitmap>() {
-                                @Override
-                                public void onResourceReady(@NonNull Bitmap resource, @Nullable Transition<? super Bitmap> transition) {
-                                    // Save bitmap to file and get Uri
-                                    fileUri = saveImageToFile(resource, "profile_picture");
-                                    imageViewProfilePicture.setImageBitmap(resource);
-                                }
-
-                                @Override
-                                public void onLoadCleared(@Nullable Drawable placeholder) {
-                                }
-                            });
-                })
-                .addOnFailureListener(e -> {
-                    Toast.makeText(getContext(), "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                });
-    }
+        int viewSize = imageViewProfilePicture.getLayoutParams().width;
+        backend.fetchProfileImageUrl(userId, ProfileImagePipeline.variantFor(viewSize), new LearningBackend.Callback<String>() {
+            @Override
+            public void onResult(String url) {
+                if (getView() == null || pickedImageUri != null) {
+                    return;
+                }
+                // Glide decodes off the main thread, downsampled to the view
+                Glide.with(AccountFragment.this).load(url).into(imageViewProfilePicture);
+            }
 
-    private Uri saveImageToFile(Bitmap bitmap, String filename) {
-        // ContextWrapper to get the app's file directory
-        ContextWrapper wrapper = new ContextWrapper(getContext());
-        // Creating a file in the app's internal storage
-        File file = new File(wrapper.getFilesDir(), filename + ".jpg");
-        try (OutputStream stream = new FileOutputStream(file)) {
-            bitmap.compress(Bitmap.CompressFormat.JPEG, 100, stream);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return Uri.fromFile(file);
+            @Override
+            public void onError(Exception e) {
+                Toast.makeText(getContext(), "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     private void uploadUserImage() {
-        storage = FirebaseStorage.getInstance();
-        storageRef = storage.getReference().child("profile_images/" + userId + ".jpg");
-
-        storageRef.putFile(fileUri)
-                .addOnSuccessListener(taskSnapshot -> {
-                    storageRef.getDownloadUrl()
-                            .addOnSuccessListener(uri -> {
-                                imageUrl = uri.toString();
-                                updateUserProfile();
-                            })
-                            .addOnFailureListener(e -> {
-                                Toast.makeText(getContext(), "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                            });
-                })
-                .addOnFailureListener(e -> {
-                    Toast.makeText(getContext(), "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                });
+        if (pickedImageUri == null) {
+            updateUserProfile();
+            return;
+        }
+        ProfileImagePipeline.getInstance().upload(requireContext().getContentResolver(), pickedImageUri, userId,
+                new LearningBackend.Callback<Map<Integer, String>>() {
+            @Override
+            public void onResult(Map<Integer, String> urls) {
+                int[] sizes = ProfileImagePipeline.VARIANT_SIZES;
+                imageUrl = urls.get(sizes[sizes.length - 1]);
+                pickedImageUri = null;
+                updateUserProfile();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Toast.makeText(getContext(), "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     private void updateUserProfile() {
@@ -181,14 +155,19 @@ public class AccountFragment extends Fragment {
         String level = editTextLevel.getText().toString();
 
         User user = new User(userId, name, age, phoneNumber, email, level, imageUrl);
-        db.collection("users").document(userId).set(user)
-                .addOnSuccessListener(aVoid -> {
-                    Toast.makeText(getContext(), "User updated successfully", Toast.LENGTH_SHORT).show();
-                    revertChanges();
-                })
-                .addOnFailureListener(e -> {
-                    Toast.makeText(getContext(), "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                });
+        // Only the fields that differ from the cached profile are written
+        profiles.updateUser(user, new LearningBackend.Callback<Void>() {
+            @Override
+            public void onResult(Void result) {
+                Toast.makeText(getContext(), "User updated successfully", Toast.LENGTH_SHORT).show();
+                revertChanges();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Toast.makeText(getContext(), "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     ActivityResultLauncher<String> mGetContent = registerForActivityResult(new ActivityResultContracts.GetContent(),
@@ -196,8 +175,8 @@ public class AccountFragment extends Fragment {
                 @Override
                 public void onActivityResult(Uri uri) {
                     if (uri != null) {
-                        fileUri = uri;
-                        imageViewProfilePicture.setImageURI(uri);
+                        pickedImageUri = uri;
+                        Glide.with(AccountFragment.this).load(uri).into(imageViewProfilePicture);
                     }
                 }
             });
@@ -212,6 +191,10 @@ public class AccountFragment extends Fragment {
 
     private void revertChanges() {
         fetchUserDetails();
+        if (pickedImageUri != null) {
+            pickedImageUri = null;
+            setImageForUser();
+        }
         imageViewProfilePicture.setEnabled(false);
         editTextName.setEnabled(false);
         editTextAge.setEnabled(false);
@@ -219,17 +202,26 @@ public class AccountFragment extends Fragment {
         buttonSave.setEnabled(false);
     }
 
+    // Served from the profile cache; a second callback follows if revalidation finds changes
     private void fetchUserDetails() {
-        db.collection("users").document(userId).get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    User user = documentSnapshot.toObject(User.class);
-                    if (user != null) {
-                        editTextName.setText(user.getName());
-                        editTextAge.setText(String.valueOf(user.getAge()));
-                        editTextPhoneNumber.setText(user.getPhoneNumber());
-                        editTextEmail.setText(user.getEmail());
-                        editTextLevel.setText(user.getLevel());
+        profiles.getUser(userId, new LearningBackend.Callback<User>() {
+            @Override
+            public void onResult(User user) {
+                if (user != null && getView() != null) {
+                    editTextName.setText(user.getName());
+                    editTextAge.setText(String.valueOf(user.getAge()));
+                    editTextPhoneNumber.setText(user.getPhoneNumber());
+                    editTextEmail.setText(user.getEmail());
+                    editTextLevel.setText(user.getLevel());
+                    if (imageUrl == null) {
+                        imageUrl = user.getImageUrl();
                     }
-                });
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+            }
+        });
     }
 }
\ No newline at end of file
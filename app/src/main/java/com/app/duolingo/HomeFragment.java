@@ -3,8 +3,6 @@ package com.app.duolingo;
 import android.os.Bundle;
 
 import androidx.fragment.app.Fragment;
-import androidx.fragment.app.FragmentManager;
-import androidx.fragment.app.FragmentTransaction;
 import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.GridLayoutManager;
@@ -20,6 +18,8 @@ import com.app.duolingo.fragment.ModeFragment;
 import com.app.duolingo.models.Course;
 import com.app.duolingo.models.CoursesViewModel;
 import com.app.duolingo.models.Progress;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
 
 import java.util.List;
 import java.util.Map;
@@ -58,16 +58,14 @@ public class HomeFragment extends Fragment {
         recyclerView.setLayoutManager(gridLayoutManager);
 
         viewModel = new ViewModelProvider(this).get(CoursesViewModel.class);
+        FirebaseUser currentUser = FirebaseAuth.getInstance().getCurrentUser();
+        viewModel.setUserId(currentUser != null ? currentUser.getUid() : null);
 
         adapter = new CoursesAdapter(getParentFragmentManager(), new CoursesAdapter.OnCourseItemClickListener() {
             @Override
             public void onCourseItemClick(Course course) {
                 ModeFragment modeFragment = ModeFragment.newInstance(course.getId());
-                FragmentManager fragmentManager = getParentFragmentManager();
-                FragmentTransaction transaction = fragmentManager.beginTransaction();
-                transaction.replace(R.id.frame_layout, modeFragment);
-                transaction.addToBackStack(null);
-                transaction.commit();
+                ((MainActivity) requireActivity()).navigateTo(modeFragment);
             }
         });
 
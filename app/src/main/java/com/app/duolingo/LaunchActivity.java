@@ -0,0 +1,26 @@
+package com.app.duolingo;
+
+import android.app.Activity;
+import android.content.Intent;
+import android.os.Bundle;
+
+import com.app.duolingo.services.StartupTimer;
+import com.google.firebase.auth.FirebaseAuth;
+
+// Entry point with no layout of its own: the signed-in state FirebaseAuth restores from disk
+// decides between MainActivity and LoginActivity before anything is inflated.
+public class LaunchActivity extends Activity {
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        StartupTimer.onLaunch();
+
+        Class<? extends Activity> destination = FirebaseAuth.getInstance().getCurrentUser() != null
+                ? MainActivity.class : LoginActivity.class;
+        startActivity(new Intent(this, destination));
+        finish();
+        // The destination's own window replaces the starting window without a transition
+        overridePendingTransition(0, 0);
+    }
+}
@@ -4,21 +4,29 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
 import androidx.fragment.app.FragmentTransaction;
+import androidx.lifecycle.Lifecycle;
+
+import android.content.Intent;
+import android.content.pm.ApplicationInfo;
 import android.os.Bundle;
-import android.widget.TextView;
 
 import com.app.duolingo.databinding.ActivityMainBinding;
-import com.google.android.gms.auth.api.signin.GoogleSignIn;
-import com.google.android.gms.auth.api.signin.GoogleSignInAccount;
-import com.google.android.gms.auth.api.signin.GoogleSignInClient;
-import com.google.android.gms.auth.api.signin.GoogleSignInOptions;
+import com.app.duolingo.services.Metrics;
+import com.app.duolingo.services.StartupTimer;
+import com.app.duolingo.services.WriteBehindQueue;
+
+import java.io.File;
+import java.util.List;
 
 public class MainActivity extends AppCompatActivity {
 
-    TextView userName;
-    GoogleSignInClient gClient;
-    GoogleSignInOptions gOptions;
+    private static final String TAB_TAG_PREFIX = "tab:";
+    private static final String STATE_CURRENT_TAB = "current_tab";
+    private static final long METRICS_SNAPSHOT_PERIOD_MS = 60 * 1000;
+
     ActivityMainBinding binding;
+    // Bottom-nav item whose fragment is showing; 0 before the first tab is added
+    private int currentTabId;
 
 
     @Override
@@ -26,40 +34,136 @@ public class MainActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         binding = ActivityMainBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
+        StartupTimer.trackFirstFrame(this);
+        // Sends points and progress a previous run queued but could not deliver
+        WriteBehindQueue.getInstance(this);
 
-        replaceFragment(new HomeFragment());
-        binding.bottomNavigationView.setBackground(null);
-
-        gOptions = new GoogleSignInOptions.Builder(GoogleSignInOptions.DEFAULT_SIGN_IN).requestEmail().build();
-        gClient = GoogleSignIn.getClient(this, gOptions);
-
-        GoogleSignInAccount gAccount = GoogleSignIn.getLastSignedInAccount(this);
-        if (gAccount != null){
-            String gName = gAccount.getDisplayName();
-            userName.setText(gName);
+        // After recreation the fragment manager restores the tabs, hidden or not
+        if (savedInstanceState == null) {
+            selectTab(R.id.home);
+        } else {
+            currentTabId = savedInstanceState.getInt(STATE_CURRENT_TAB, R.id.home);
         }
+        binding.bottomNavigationView.setBackground(null);
         binding.bottomNavigationView.setOnItemSelectedListener(item -> {
-            if (item.getItemId() == R.id.home){
-                replaceFragment(new HomeFragment());
-            }
-            if (item.getItemId() == R.id.course){
-                replaceFragment(new CourseFragment());
-            }
-            if (item.getItemId() == R.id.library){
-                replaceFragment(new LibraryFragment());
-            }
-            if (item.getItemId() == R.id.account){
-                replaceFragment(new AccountFragment());
-            }
+            selectTab(item.getItemId());
             return true;
         });
+        binding.bottomNavigationView.setOnItemReselectedListener(item -> popToTabRoot());
+        if (isDebuggable()) {
+            binding.fabPractice.setOnLongClickListener(v -> {
+                startActivity(new Intent(this, MetricsActivity.class));
+                return true;
+            });
+        }
 
     }
 
-    private void replaceFragment(Fragment fragment) {
+    @Override
+    protected void onStart() {
+        super.onStart();
+        if (isDebuggable()) {
+            // files/metrics.json holds the latest snapshot, for pulling off a device with adb
+            Metrics.getInstance().startSnapshots(new File(getFilesDir(), "metrics.json"), METRICS_SNAPSHOT_PERIOD_MS);
+        }
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        Metrics.getInstance().stopSnapshots();
+    }
+
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putInt(STATE_CURRENT_TAB, currentTabId);
+    }
+
+    // Switches to a tab through the bottom navigation, so the selected item follows
+    public void showTab(int itemId) {
+        binding.bottomNavigationView.setSelectedItemId(itemId);
+    }
+
+    // Opens a screen on top of the current one; back returns to it with its state intact
+    public void navigateTo(Fragment screen) {
         FragmentManager fragmentManager = getSupportFragmentManager();
-        FragmentTransaction fragmentTransaction = fragmentManager.beginTransaction();
-        fragmentTransaction.replace(R.id.frame_layout, fragment);
+        FragmentTransaction fragmentTransaction = fragmentManager.beginTransaction().setReorderingAllowed(true);
+        Fragment current = visibleFragment();
+        if (current != null) {
+            fragmentTransaction.hide(current);
+            fragmentTransaction.setMaxLifecycle(current, Lifecycle.State.STARTED);
+        }
+        fragmentTransaction.add(R.id.frame_layout, screen);
+        fragmentTransaction.addToBackStack(null);
         fragmentTransaction.commit();
     }
-}
\ No newline at end of file
+
+    // Swaps the topmost opened screen for another, as "Try again" does
+    public void replaceScreen(Fragment screen) {
+        getSupportFragmentManager().popBackStackImmediate();
+        navigateTo(screen);
+    }
+
+    // Tab fragments are created once and then only shown or hidden, keeping their views,
+    // ViewModels and listeners. Screens opened from a tab are closed when switching away.
+    private void selectTab(int itemId) {
+        popToTabRoot();
+        if (itemId == currentTabId) {
+            return;
+        }
+        FragmentManager fragmentManager = getSupportFragmentManager();
+        FragmentTransaction fragmentTransaction = fragmentManager.beginTransaction().setReorderingAllowed(true);
+        Fragment current = fragmentManager.findFragmentByTag(TAB_TAG_PREFIX + currentTabId);
+        if (current != null) {
+            fragmentTransaction.hide(current);
+            // Hidden tabs stay started, so onPause-driven work stops while they are out of sight
+            fragmentTransaction.setMaxLifecycle(current, Lifecycle.State.STARTED);
+        }
+        Fragment tab = fragmentManager.findFragmentByTag(TAB_TAG_PREFIX + itemId);
+        if (tab == null) {
+            tab = createTab(itemId);
+            fragmentTransaction.add(R.id.frame_layout, tab, TAB_TAG_PREFIX + itemId);
+        } else {
+            fragmentTransaction.show(tab);
+            fragmentTransaction.setMaxLifecycle(tab, Lifecycle.State.RESUMED);
+        }
+        fragmentTransaction.commit();
+        currentTabId = itemId;
+    }
+
+    private void popToTabRoot() {
+        FragmentManager fragmentManager = getSupportFragmentManager();
+        if (fragmentManager.getBackStackEntryCount() > 0 && !fragmentManager.isStateSaved()) {
+            fragmentManager.popBackStackImmediate(null, FragmentManager.POP_BACK_STACK_INCLUSIVE);
+        }
+    }
+
+    private boolean isDebuggable() {
+        return (getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+    }
+
+    private Fragment visibleFragment() {
+        List<Fragment> fragments = getSupportFragmentManager().getFragments();
+        for (int i = fragments.size() - 1; i >= 0; i--) {
+            Fragment fragment = fragments.get(i);
+            if (fragment.getId() == R.id.frame_layout && !fragment.isHidden()) {
+                return fragment;
+            }
+        }
+        return null;
+    }
+
+    private Fragment createTab(int itemId) {
+        if (itemId == R.id.course) {
+            return new CourseFragment();
+        }
+        if (itemId == R.id.library) {
+            return new LibraryFragment();
+        }
+        if (itemId == R.id.account) {
+            return new AccountFragment();
+        }
+        return new HomeFragment();
+    }
+}
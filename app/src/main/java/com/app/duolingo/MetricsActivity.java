@@ -0,0 +1,73 @@
+package com.app.duolingo;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.widget.Button;
+import android.widget.TextView;
+
+import com.app.duolingo.services.Metrics;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+// Hidden debug screen: the current Metrics snapshot, refreshed every second while visible.
+// Opened by long-pressing the centre button of the bottom bar in debuggable builds.
+public class MetricsActivity extends AppCompatActivity {
+
+    private static final long REFRESH_MS = 1000;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private TextView textViewMetrics;
+    private final Runnable refresh = new Runnable() {
+        @Override
+        public void run() {
+            showSnapshot();
+            handler.postDelayed(this, REFRESH_MS);
+        }
+    };
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_metrics);
+        textViewMetrics = findViewById(R.id.textViewMetrics);
+        Button buttonReset = findViewById(R.id.buttonResetMetrics);
+        Button buttonShare = findViewById(R.id.buttonShareMetrics);
+
+        buttonReset.setOnClickListener(v -> {
+            Metrics.getInstance().reset();
+            showSnapshot();
+        });
+        buttonShare.setOnClickListener(v -> {
+            Intent share = new Intent(Intent.ACTION_SEND);
+            share.setType("application/json");
+            share.putExtra(Intent.EXTRA_TEXT, Metrics.getInstance().toJson());
+            startActivity(Intent.createChooser(share, "Share metrics"));
+        });
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        handler.post(refresh);
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        handler.removeCallbacks(refresh);
+    }
+
+    private void showSnapshot() {
+        String json = Metrics.getInstance().toJson();
+        try {
+            textViewMetrics.setText(new JSONObject(json).toString(2));
+        } catch (JSONException e) {
+            textViewMetrics.setText(json);
+        }
+    }
+}
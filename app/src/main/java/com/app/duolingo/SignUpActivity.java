@@ -17,14 +17,13 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import com.app.duolingo.models.User;
+import com.app.duolingo.services.LearningBackend;
+import com.app.duolingo.services.LearningBackends;
 import com.google.android.gms.tasks.OnCompleteListener;
-import com.google.android.gms.tasks.OnFailureListener;
-import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.android.gms.tasks.Task;
 import com.google.firebase.auth.AuthResult;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.FirebaseFirestore;
 
 public class SignUpActivity extends AppCompatActivity {
 
@@ -104,38 +103,33 @@ public class SignUpActivity extends AppCompatActivity {
                                 // Create a new User object
                                 User newUser = new User(userId, "", 0, "", firebaseUser.getEmail(), "Beginer", "https://firebasestorage.googleapis.com/v0/b/duolingo-cb87b.appspot.com/o/profile_images%2Ffree-user-icon.png?alt=media&token=50a34461-18ce-4c0e-abd3-e9ccc0fa58fe");
 
-                                // Get an instance of the Firestore database
-                                FirebaseFirestore db = FirebaseFirestore.getInstance();
-
                                 // Add a new document with the user's UID as the document ID
-                                db.collection("users").document(userId).set(newUser)
-                                        .addOnSuccessListener(new OnSuccessListener<Void>() {
-                                            @Override
-                                            public void onSuccess(Void aVoid) {
-                                                // Document was successfully written!
-                                                Log.d("SignUpActivity", "DocumentSnapshot successfully written!");
-                                            }
-                                        })
-                                        .addOnFailureListener(new OnFailureListener() {
-                                            @Override
-                                            public void onFailure(@NonNull Exception e) {
-                                                // Handle the error
-                                                Log.w("SignUpActivity", "Error writing document", e);
-                                                if (firebaseUser != null) {
-                                                    firebaseUser.delete().addOnCompleteListener(new OnCompleteListener<Void>() {
-                                                        @Override
-                                                        public void onComplete(@NonNull Task<Void> deleteTask) {
-                                                            if (deleteTask.isSuccessful()) {
-                                                                Log.d("SignUpActivity", "User deleted from authentication");
-                                                            } else {
-                                                                Log.e("SignUpActivity", "Failed to delete user from authentication", deleteTask.getException());
-                                                                // Optionally handle further if user deletion also fails
-                                                            }
-                                                        }
-                                                    });
+                                LearningBackends.get().saveUser(newUser, new LearningBackend.Callback<Void>() {
+                                    @Override
+                                    public void onResult(Void result) {
+                                        // Document was successfully written!
+                                        Log.d("SignUpActivity", "DocumentSnapshot successfully written!");
+                                    }
+
+                                    @Override
+                                    public void onError(Exception e) {
+                                        // Handle the error
+                                        Log.w("SignUpActivity", "Error writing document", e);
+                                        if (firebaseUser != null) {
+                                            firebaseUser.delete().addOnCompleteListener(new OnCompleteListener<Void>() {
+                                                @Override
+                                                public void onComplete(@NonNull Task<Void> deleteTask) {
+                                                    if (deleteTask.isSuccessful()) {
+                                                        Log.d("SignUpActivity", "User deleted from authentication");
+                                                    } else {
+                                                        Log.e("SignUpActivity", "Failed to delete user from authentication", deleteTask.getException());
+                                                        // Optionally handle further if user deletion also fails
+                                                    }
                                                 }
-                                            }
-                                        });
+                                            });
+                                        }
+                                    }
+                                });
 
                                 startActivity(new Intent(SignUpActivity.this, LoginActivity.class));
                                 finish();
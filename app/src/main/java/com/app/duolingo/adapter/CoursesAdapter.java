@@ -6,32 +6,56 @@ import android.view.ViewGroup;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 
+import androidx.annotation.NonNull;
 import androidx.fragment.app.FragmentManager;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.app.duolingo.R;
 import com.app.duolingo.models.Course;
 import com.app.duolingo.models.Progress;
 
-import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 public class CoursesAdapter extends RecyclerView.Adapter<CoursesAdapter.CourseViewHolder> {
 
-    private List<Course> courses = new ArrayList<>();
+    // Rebinds only the progress bar and percentage of a row
+    private static final Object PAYLOAD_PROGRESS = new Object();
+
+    private static final DiffUtil.ItemCallback<Course> DIFF_CALLBACK = new DiffUtil.ItemCallback<Course>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Course oldItem, @NonNull Course newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Course oldItem, @NonNull Course newItem) {
+            return Objects.equals(oldItem.getName(), newItem.getName())
+                    && Objects.equals(oldItem.getDescription(), newItem.getDescription())
+                    && Objects.equals(oldItem.getTopicId(), newItem.getTopicId());
+        }
+    };
+
+    // Lists are diffed on a background thread; the adapter only sees committed lists
+    private final AsyncListDiffer<Course> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+    // Positions in indexedList, which is rebuilt whenever the differ has committed another list
+    private final Map<String, Integer> positionsById = new HashMap<>();
+    private List<Course> indexedList;
+    private final Map<String, Long> stableIds = new HashMap<>();
     private OnCourseItemClickListener listener;
-    private TextView courseNameTextView;
-    private TextView courseDescriptionTextView;
-    private ProgressBar progressBar;
-    private TextView progressTextView;
     private Map<String, Progress> progressMap = new HashMap<>();
     private FragmentManager fragmentManager;
 
     public CoursesAdapter(FragmentManager fragmentManager,OnCourseItemClickListener listener) {
         this.listener = listener;
         this.fragmentManager = fragmentManager;
+        setHasStableIds(true);
     }
 
     @Override
@@ -42,35 +66,51 @@ public class CoursesAdapter extends RecyclerView.Adapter<CoursesAdapter.CourseVi
 
     @Override
     public void onBindViewHolder(CourseViewHolder holder, int position) {
-        Course course = courses.get(position);
-        Progress progress = progressMap != null ? progressMap.get(course.getId()) : null;
-
-        courseNameTextView = holder.itemView.findViewById(R.id.textViewCourseTitle);
-        courseDescriptionTextView = holder.itemView.findViewById(R.id.textViewCourseDescription);
-        progressBar = holder.itemView.findViewById(R.id.progressBarCourse);
-        progressTextView = holder.itemView.findViewById(R.id.textViewProgressPercentage);
-
-        courseNameTextView.setText(course.getName());
-        courseDescriptionTextView.setText(course.getDescription());
-        if (progress != null) {
-            progressBar.setProgress((int) progress.getLearnProgress());
-            progressTextView.setText((int) progress.getLearnProgress() + "%");
-        }else{
-            progressBar.setProgress(0);
-            progressTextView.setText("0%");
+        Course course = differ.getCurrentList().get(position);
+        holder.bind(course, listener);
+        holder.bindProgress(progressPercentage(course.getId()));
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull CourseViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (onlyProgressChanged(payloads)) {
+            holder.bindProgress(progressPercentage(differ.getCurrentList().get(position).getId()));
+        } else {
+            onBindViewHolder(holder, position);
         }
+    }
 
-        holder.bind(course, listener);
+    // Progress ticks that merged before a bind arrive as several PAYLOAD_PROGRESS entries
+    private static boolean onlyProgressChanged(List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            return false;
+        }
+        for (Object payload : payloads) {
+            if (payload != PAYLOAD_PROGRESS) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public int getItemCount() {
-        return courses.size();
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        String courseId = differ.getCurrentList().get(position).getId();
+        Long id = stableIds.get(courseId);
+        if (id == null) {
+            id = (long) stableIds.size();
+            stableIds.put(courseId, id);
+        }
+        return id;
     }
 
     public void setCourses(List<Course> courses) {
-        this.courses = courses;
-        notifyDataSetChanged();
+        differ.submitList(courses);
     }
 
     public interface OnCourseItemClickListener {
@@ -79,12 +119,22 @@ public class CoursesAdapter extends RecyclerView.Adapter<CoursesAdapter.CourseVi
 
     static class CourseViewHolder extends RecyclerView.ViewHolder {
 
+        private final TextView courseNameTextView;
+        private final TextView courseDescriptionTextView;
+        private final ProgressBar progressBar;
+        private final TextView progressTextView;
+
         public CourseViewHolder(View itemView) {
             super(itemView);
+            courseNameTextView = itemView.findViewById(R.id.textViewCourseTitle);
+            courseDescriptionTextView = itemView.findViewById(R.id.textViewCourseDescription);
+            progressBar = itemView.findViewById(R.id.progressBarCourse);
+            progressTextView = itemView.findViewById(R.id.textViewProgressPercentage);
         }
 
         public void bind(final Course course, final OnCourseItemClickListener listener) {
-            // Bind course data to UI elements
+            courseNameTextView.setText(course.getName());
+            courseDescriptionTextView.setText(course.getDescription());
             itemView.setOnClickListener(new View.OnClickListener() {
                 @Override
                 public void onClick(View v) {
@@ -92,10 +142,49 @@ public class CoursesAdapter extends RecyclerView.Adapter<CoursesAdapter.CourseVi
                 }
             });
         }
+
+        public void bindProgress(int percentage) {
+            progressBar.setProgress(percentage);
+            progressTextView.setText(percentage + "%");
+        }
     }
 
+    // Only rows whose displayed percentage changed are rebound, and only their progress views
     public void setProgressMap(Map<String, Progress> progressMap) {
-        this.progressMap = progressMap;
-        notifyDataSetChanged();
+        Map<String, Progress> previous = this.progressMap;
+        this.progressMap = progressMap != null ? progressMap : new HashMap<>();
+
+        Set<String> courseIds = new HashSet<>(previous.keySet());
+        courseIds.addAll(this.progressMap.keySet());
+        for (String courseId : courseIds) {
+            if (percentageOf(previous.get(courseId)) == percentageOf(this.progressMap.get(courseId))) {
+                continue;
+            }
+            Integer position = positionOf(courseId);
+            if (position != null) {
+                notifyItemChanged(position, PAYLOAD_PROGRESS);
+            }
+        }
+    }
+
+    // Looked up in the list the adapter currently shows, not one still being diffed
+    private Integer positionOf(String courseId) {
+        List<Course> courses = differ.getCurrentList();
+        if (courses != indexedList) {
+            positionsById.clear();
+            for (int i = 0; i < courses.size(); i++) {
+                positionsById.put(courses.get(i).getId(), i);
+            }
+            indexedList = courses;
+        }
+        return positionsById.get(courseId);
+    }
+
+    private int progressPercentage(String courseId) {
+        return percentageOf(progressMap.get(courseId));
+    }
+
+    private static int percentageOf(Progress progress) {
+        return progress != null ? (int) progress.getLearnProgress() : 0;
     }
 }
@@ -1,6 +1,5 @@
 package com.app.duolingo.adapter;
 
-import android.media.MediaPlayer;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -11,16 +10,18 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.app.duolingo.R;
 import com.app.duolingo.models.Word;
+import com.app.duolingo.services.PronunciationPlayer;
 import com.wajahatkarim3.easyflipview.EasyFlipView;
 
-import java.io.IOException;
 import java.util.List;
 
 public class FlashcardAdapter extends RecyclerView.Adapter<FlashcardAdapter.FlashcardViewHolder> {
     public List<Word> words;
+    private final PronunciationPlayer pronunciationPlayer;
 
-    public FlashcardAdapter(List<Word> words) {
+    public FlashcardAdapter(List<Word> words, PronunciationPlayer pronunciationPlayer) {
         this.words = words;
+        this.pronunciationPlayer = pronunciationPlayer;
     }
 
     @Override
@@ -46,13 +47,13 @@ public class FlashcardAdapter extends RecyclerView.Adapter<FlashcardAdapter.Flas
         holder.btnPlayAudioFront.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                playAudio(word.getSound());
+                pronunciationPlayer.play(word.getSound());
             }
         });
         holder.btnPlayAudioBack.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                playAudio(word.getSound());
+                pronunciationPlayer.play(word.getSound());
             }
         });
 
@@ -70,6 +71,16 @@ public class FlashcardAdapter extends RecyclerView.Adapter<FlashcardAdapter.Flas
         notifyDataSetChanged();
     }
 
+    // Downloads the clips of count cards starting at position so they play at once
+    public void prefetchAudio(int position, int count) {
+        if (words == null) {
+            return;
+        }
+        for (int i = position; i < position + count && i < words.size(); i++) {
+            pronunciationPlayer.prefetch(words.get(i).getSound());
+        }
+    }
+
     public class FlashcardViewHolder extends RecyclerView.ViewHolder {
         TextView tvWordFront, tvMeaningFront, tvPronounceFront, tvWordBack, tvMeaningBack, tvPronounceBack, tvWordNumberFront, tvWordNumberBack;
         Button btnPlayAudioBack, btnPlayAudioFront;
@@ -89,28 +100,4 @@ public class FlashcardAdapter extends RecyclerView.Adapter<FlashcardAdapter.Flas
             tvWordNumberBack = itemView.findViewById(R.id.tvWordNumberBack);
         }
     }
-
-    private void playAudio(String audioUrl) {
-        MediaPlayer mediaPlayer = new MediaPlayer();
-        try {
-            mediaPlayer.setDataSource(audioUrl);
-            mediaPlayer.prepareAsync();
-
-            mediaPlayer.setOnPreparedListener(new MediaPlayer.OnPreparedListener() {
-                @Override
-                public void onPrepared(MediaPlayer mp) {
-                    mp.start();
-                }
-            });
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        mediaPlayer.setOnCompletionListener(new MediaPlayer.OnCompletionListener() {
-            @Override
-            public void onCompletion(MediaPlayer mp) {
-                mp.release();
-            }
-        });
-    }
 }
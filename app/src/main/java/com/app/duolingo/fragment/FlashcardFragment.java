@@ -8,7 +8,6 @@ import androidx.fragment.app.FragmentTransaction;
 import androidx.viewpager2.widget.ViewPager2;
 
 import android.os.Handler;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -20,26 +19,37 @@ import android.widget.Toast;
 import com.app.duolingo.HomeFragment;
 import com.app.duolingo.R;
 import com.app.duolingo.adapter.FlashcardAdapter;
+import com.app.duolingo.engine.FlashcardSession;
 import com.app.duolingo.models.Word;
-import com.app.duolingo.services.DatabaseService;
+import com.app.duolingo.services.CourseWordRepository;
+import com.app.duolingo.services.LearningBackend;
+import com.app.duolingo.services.LearnProgressWriter;
+import com.app.duolingo.services.ProgressRecordRepository;
+import com.app.duolingo.services.PronunciationPlayer;
+import com.app.duolingo.services.ViewScope;
+import com.app.duolingo.services.WriteBehindQueue;
 import com.google.firebase.auth.FirebaseAuth;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 public class FlashcardFragment extends Fragment {
 
+    private static final int AUDIO_PREFETCH_CARDS = 3;
+
     private ViewPager2 viewPagerWords;
     private Handler autoPlayHandler = new Handler();
     private Runnable autoPlayRunnable;
     private boolean isAutoPlayActive = false;
     private FlashcardAdapter flashcardAdapter;
+    private FlashcardSession session;
     private Button btnNext, btnPrevious;
     private ImageButton btnAutoPlay;
-    private String progressRecordRefId, userId;
+    private String progressRecordRefId, userId, courseId;
     private FirebaseAuth auth;
-    private DatabaseService databaseService;
+    private LearnProgressWriter learnProgressWriter;
+    private PronunciationPlayer pronunciationPlayer;
 
     public FlashcardFragment() {
         // Required empty public constructor
@@ -66,37 +76,43 @@ public class FlashcardFragment extends Fragment {
             userId = auth.getCurrentUser().getUid();
         }
 
-        String courseId = getArguments().getString("COURSE_ID");
-        databaseService = new DatabaseService();
-        flashcardAdapter = new FlashcardAdapter(new ArrayList<>());
+        courseId = getArguments().getString("COURSE_ID");
+        pronunciationPlayer = new PronunciationPlayer(requireContext());
+        flashcardAdapter = new FlashcardAdapter(new ArrayList<>(), pronunciationPlayer);
+        learnProgressWriter = new LearnProgressWriter(WriteBehindQueue.getInstance(requireContext()), LearnProgressWriter.DEFAULT_WINDOW_MS);
         viewPagerWords.setAdapter(flashcardAdapter);
-
-        databaseService.getProgressRecordRefId(userId, courseId, new DatabaseService.Callback<String>() {
+        viewPagerWords.registerOnPageChangeCallback(new ViewPager2.OnPageChangeCallback() {
             @Override
-            public void onResult(String progressRecordRefId) {
-                FlashcardFragment.this.progressRecordRefId = progressRecordRefId;
-            }
-
-            @Override
-            public void onError(Exception e) {
-                Toast.makeText(getActivity(), "Error fetching progress record", Toast.LENGTH_SHORT).show();
+            public void onPageSelected(int position) {
+                flashcardAdapter.prefetchAudio(position + 1, AUDIO_PREFETCH_CARDS);
             }
         });
 
-        databaseService.fetchCourseWords(courseId, new DatabaseService.Callback<List<Word>>() {
+        // Both loads are cancelled with the view, so backing out stops them. Browsing cards writes
+        // nothing; the progress record is only created with the first progress to save.
+        if (userId != null) {
+            ViewScope.bind(getViewLifecycleOwner(), ProgressRecordRepository.getInstance().findProgressRecordRefId(userId, courseId)).then(new LearningBackend.Callback<String>() {
+                @Override
+                public void onResult(String progressRecordRefId) {
+                    if (progressRecordRefId != null) {
+                        FlashcardFragment.this.progressRecordRefId = progressRecordRefId;
+                    }
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    Toast.makeText(getActivity(), "Error fetching progress record", Toast.LENGTH_SHORT).show();
+                }
+            });
+        }
+
+        ViewScope.bind(getViewLifecycleOwner(), CourseWordRepository.getInstance(requireContext()).loadCourseWords(courseId)).then(new LearningBackend.Callback<List<Word>>() {
             @Override
             public void onResult(List<Word> result) {
-                if (getActivity() == null || flashcardAdapter == null) {
-                    Log.e("FlashcardFragment", "Activity or adapter is not initialized");
-                    return;
-                }
-                Collections.shuffle(result);
-                getActivity().runOnUiThread(new Runnable() {
-                    @Override
-                    public void run() {
-                        flashcardAdapter.setWords(result);
-                    }
-                });
+                session = new FlashcardSession(result, new Random());
+                flashcardAdapter.setWords(session.getCards());
+                // The first card too, since onPageSelected may have fired on the empty list
+                flashcardAdapter.prefetchAudio(0, AUDIO_PREFETCH_CARDS + 1);
             }
 
             @Override
@@ -106,39 +122,16 @@ public class FlashcardFragment extends Fragment {
         });
 
         btnNext.setOnClickListener(v -> {
-            int currentItem = viewPagerWords.getCurrentItem();
-            int totalItems = flashcardAdapter.getItemCount();
-            if (currentItem < totalItems - 1) {
-                viewPagerWords.setCurrentItem(currentItem + 1);
-                int progressPercentage = (int) (((currentItem + 1) / (float) totalItems) * 100);
-                if (progressRecordRefId != null) {
-                    databaseService.updateLearnProgress(progressRecordRefId, progressPercentage, new DatabaseService.Callback<Void>() {
-                        @Override
-                        public void onResult(Void result) {}
-
-                        @Override
-                        public void onError(Exception e) {
-                            Toast.makeText(getActivity(), "Error updating progress", Toast.LENGTH_SHORT).show();
-                        }
-                    });
-                }
-            } else {
-                viewPagerWords.setCurrentItem(0);
-                databaseService.updateLearnProgress(progressRecordRefId, 100, new DatabaseService.Callback<Void>() {
-                    @Override
-                    public void onResult(Void result) {}
-
-                    @Override
-                    public void onError(Exception e) {
-                        Toast.makeText(getActivity(), "Error updating progress", Toast.LENGTH_SHORT).show();
-                    }
-                });
+            if (session == null) {
+                return;
             }
+            int currentItem = viewPagerWords.getCurrentItem();
+            viewPagerWords.setCurrentItem(session.nextPosition(currentItem));
+            submitProgress(session.progressAfter(currentItem));
         });
         btnPrevious.setOnClickListener(v -> {
-            int currentItem = viewPagerWords.getCurrentItem();
-            if (currentItem > 0) {
-                viewPagerWords.setCurrentItem(currentItem - 1);
+            if (session != null) {
+                viewPagerWords.setCurrentItem(session.previousPosition(viewPagerWords.getCurrentItem()));
             }
         });
 
@@ -177,6 +170,29 @@ public class FlashcardFragment extends Fragment {
         return view;
     }
 
+    private void submitProgress(int progressPercentage) {
+        if (progressRecordRefId != null) {
+            learnProgressWriter.submit(progressRecordRefId, progressPercentage);
+            return;
+        }
+        if (userId == null) {
+            return;
+        }
+        // Concurrent calls share one lookup, and the writer keeps only the highest value
+        ViewScope.bind(getViewLifecycleOwner(), ProgressRecordRepository.getInstance().getProgressRecordRefId(userId, courseId)).then(new LearningBackend.Callback<String>() {
+            @Override
+            public void onResult(String progressRecordRefId) {
+                FlashcardFragment.this.progressRecordRefId = progressRecordRefId;
+                learnProgressWriter.submit(progressRecordRefId, progressPercentage);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Toast.makeText(getActivity(), "Error saving progress", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
     private void startAutoPlay() {
         Toast.makeText(getActivity(), "Auto play started", Toast.LENGTH_SHORT).show();
         autoPlayHandler.postDelayed(autoPlayRunnable, 5000);
@@ -191,6 +207,8 @@ public class FlashcardFragment extends Fragment {
     public void onDestroyView() {
         super.onDestroyView();
         stopAutoPlay(); // Important to avoid memory leaks
+        learnProgressWriter.flush();
+        pronunciationPlayer.release();
     }
 
 
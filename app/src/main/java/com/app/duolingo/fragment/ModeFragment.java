@@ -5,8 +5,6 @@ import android.os.Bundle;
 
 import androidx.cardview.widget.CardView;
 import androidx.fragment.app.Fragment;
-import androidx.fragment.app.FragmentManager;
-import androidx.fragment.app.FragmentTransaction;
 
 import android.view.LayoutInflater;
 import android.view.View;
@@ -14,10 +12,17 @@ import android.view.ViewGroup;
 
 import com.app.duolingo.MainActivity;
 import com.app.duolingo.R;
+import com.app.duolingo.services.Cancellable;
+import com.app.duolingo.services.CourseWordRepository;
+import com.app.duolingo.services.ProgressRecordRepository;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
 
 public class ModeFragment extends Fragment {
 
     CardView flashcardCard, quizCard, wordSolveCard;
+    private Cancellable wordsPrefetch;
+    private Cancellable progressRecordPrefetch;
 
     public ModeFragment() {
         // Required empty public constructor
@@ -42,6 +47,7 @@ public class ModeFragment extends Fragment {
         View view = inflater.inflate(R.layout.fragment_mode, container, false);
 
         String courseId = getArguments().getString("COURSE_ID");
+        prefetchCourse(courseId);
 
         flashcardCard = view.findViewById(R.id.flashcardCard);
         quizCard = view.findViewById(R.id.quizCard);
@@ -50,11 +56,7 @@ public class ModeFragment extends Fragment {
             @Override
             public void onClick(View view) {
                 FlashcardFragment flashcardFragment = FlashcardFragment.newInstance(courseId);
-                FragmentManager fragmentManager = getParentFragmentManager();
-                FragmentTransaction transaction = fragmentManager.beginTransaction();
-                transaction.replace(R.id.frame_layout, flashcardFragment);
-                transaction.addToBackStack(null);
-                transaction.commit();
+                ((MainActivity) requireActivity()).navigateTo(flashcardFragment);
             }
         });
 
@@ -65,11 +67,7 @@ public class ModeFragment extends Fragment {
                 Bundle args = new Bundle();
                 args.putString("COURSE_KEY", courseId);
                 quizFragment.setArguments(args);
-                FragmentManager fragmentManager = getParentFragmentManager();
-                FragmentTransaction transaction = fragmentManager.beginTransaction();
-                transaction.replace(R.id.frame_layout, quizFragment);
-                transaction.addToBackStack(null);
-                transaction.commit();
+                ((MainActivity) requireActivity()).navigateTo(quizFragment);
             }
         });
 
@@ -77,14 +75,30 @@ public class ModeFragment extends Fragment {
             @Override
             public void onClick(View view) {
                 WordSolveFragment wordSolveFragment = WordSolveFragment.newInstance(courseId);
-                FragmentManager fragmentManager = getParentFragmentManager();
-                FragmentTransaction transaction = fragmentManager.beginTransaction();
-                transaction.replace(R.id.frame_layout, wordSolveFragment);
-                transaction.addToBackStack(null);
-                transaction.commit();
+                ((MainActivity) requireActivity()).navigateTo(wordSolveFragment);
             }
         });
 
         return view;
     }
+
+    // Whichever mode is picked next finds its words and progress record already loaded
+    private void prefetchCourse(String courseId) {
+        wordsPrefetch = CourseWordRepository.getInstance(requireContext()).prefetch(courseId);
+        FirebaseUser currentUser = FirebaseAuth.getInstance().getCurrentUser();
+        if (currentUser != null) {
+            progressRecordPrefetch = ProgressRecordRepository.getInstance().prefetch(currentUser.getUid(), courseId);
+        }
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        // A study screen opened from here has already joined the load, so this only stops it
+        // when the user backs out before any screen asked for the words
+        wordsPrefetch.cancel();
+        if (progressRecordPrefetch != null) {
+            progressRecordPrefetch.cancel();
+        }
+    }
 }
\ No newline at end of file
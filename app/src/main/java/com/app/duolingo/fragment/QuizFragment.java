@@ -3,12 +3,12 @@ package com.app.duolingo.fragment;
 import android.app.AlertDialog;
 import android.content.DialogInterface;
 import android.graphics.Color;
-import android.media.MediaPlayer;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Pair;
 
 import androidx.fragment.app.Fragment;
-import androidx.fragment.app.FragmentManager;
-import androidx.fragment.app.FragmentTransaction;
 
 import android.util.Log;
 import android.view.LayoutInflater;
@@ -18,32 +18,43 @@ import android.widget.Button;
 import android.widget.TextView;
 import android.widget.Toast;
 
-import com.app.duolingo.HomeFragment;
+import com.app.duolingo.MainActivity;
 import com.app.duolingo.R;
+import com.app.duolingo.engine.QuizQuestionDeck;
+import com.app.duolingo.engine.QuizSession;
 import com.app.duolingo.models.Point;
 import com.app.duolingo.models.QuizQuestion;
 import com.app.duolingo.models.Word;
-import com.app.duolingo.services.DatabaseService;
+import com.app.duolingo.services.CourseWordRepository;
+import com.app.duolingo.services.FeedbackSounds;
+import com.app.duolingo.services.LearningBackend;
+import com.app.duolingo.services.Request;
+import com.app.duolingo.services.ReviewRepository;
+import com.app.duolingo.services.ViewScope;
+import com.app.duolingo.services.WriteBehindQueue;
 import com.google.firebase.auth.FirebaseAuth;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 public class QuizFragment extends Fragment {
 
+    private static final int REVIEW_SESSION_SIZE = 20;
+    // A slow schedule read is not worth waiting for; the quiz then covers the whole course
+    private static final long DUE_WORDS_TIMEOUT_MS = 2000;
+    private static final int CORRECT_GRADE = 4;
+    private static final int WRONG_GRADE = 1;
+
     private String course;
-    private DatabaseService databaseService;
-    private List<QuizQuestion> quizQuestions;
-    private int currentQuestionIndex = 0;
+    private QuizSession session;
     private TextView tvQuestion, tvScore;
     private Button[] optionButtons;
     private Button btnNext;
     private FirebaseAuth auth;
-    private int correctAnswers = 0;
-    private int totalQuestions = 0;
-    private int score = 0;
 
     public QuizFragment() {
         // Required empty public constructor
@@ -61,13 +72,14 @@ public class QuizFragment extends Fragment {
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         course = getArguments().getString("COURSE_KEY");
-        databaseService = new DatabaseService();
+        auth = FirebaseAuth.getInstance();
     }
 
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container,
                              Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.fragment_quiz, container, false);
+        FeedbackSounds.getInstance(requireContext());
 
         tvQuestion = view.findViewById(R.id.tvQuestion);
         optionButtons = new Button[] {
@@ -82,9 +94,10 @@ public class QuizFragment extends Fragment {
         btnNext.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                if (currentQuestionIndex < quizQuestions.size() - 1) {
-                    currentQuestionIndex++;
-                    loadQuestion(quizQuestions.get(currentQuestionIndex));
+                if (session.hasNext()) {
+                    // Enabled again once the next question is shown
+                    btnNext.setEnabled(false);
+                    session.next();
                 } else {
                     showCompletionDialog();
                 }
@@ -95,13 +108,35 @@ public class QuizFragment extends Fragment {
         return view;
     }
 
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (session != null) {
+            session.close();
+        }
+        if (auth.getCurrentUser() != null) {
+            ReviewRepository.getInstance(requireContext()).flush(auth.getCurrentUser().getUid(), course);
+        }
+    }
+
+    // Words and the review schedule load side by side; leaving the screen cancels both
     private void fetchWordsForCourse() {
-        databaseService.fetchCourseWords(course, new DatabaseService.Callback<List<Word>>() {
+        Request<List<Word>> words = CourseWordRepository.getInstance(requireContext()).loadCourseWords(course);
+        Request<List<String>> dueWordIds = auth.getCurrentUser() == null
+                ? Request.succeeded(Collections.emptyList())
+                : ReviewRepository.getInstance(requireContext()).loadDueWordIds(auth.getCurrentUser().getUid(), course, REVIEW_SESSION_SIZE)
+                        .timeout(DUE_WORDS_TIMEOUT_MS)
+                        .recover(e -> Collections.emptyList());
+        // Words due for review come first; with nothing due the whole course is quizzed
+        Request<Pair<List<Word>, List<Word>>> quizWords = Request.zip(words, dueWordIds,
+                (courseWords, due) -> Pair.create(dueWords(courseWords, due), courseWords));
+
+        ViewScope.bind(getViewLifecycleOwner(), quizWords).then(new LearningBackend.Callback<Pair<List<Word>, List<Word>>>() {
             @Override
-            public void onResult(List<Word> words) {
-                updateUIWithWords(words);
-                loadQuestion(quizQuestions.get(currentQuestionIndex));
+            public void onResult(Pair<List<Word>, List<Word>> result) {
+                startQuiz(result.first, result.second);
             }
+
             @Override
             public void onError(Exception e) {
                 Toast.makeText(getContext(), "Error fetching words", Toast.LENGTH_SHORT).show();
@@ -109,18 +144,32 @@ public class QuizFragment extends Fragment {
         });
     }
 
-    private void updateUIWithWords(List<Word> words) {
-        Collections.shuffle(words);
-        quizQuestions = new ArrayList<>();
+    private void startQuiz(List<Word> questionWords, List<Word> courseWords) {
+        updateUIWithWords(questionWords, courseWords);
+        session.start();
+    }
 
+    private static List<Word> dueWords(List<Word> words, List<String> dueWordIds) {
+        Map<String, Word> wordsById = new HashMap<>();
         for (Word word : words) {
-            List<String> options = generateOptions(words, word);
-            String questionSentence = "What is the meaning of " + word.getEnglish();
-            quizQuestions.add(new QuizQuestion(questionSentence, options, word.getMeaning()));
+            wordsById.put(word.getId(), word);
+        }
+        List<Word> due = new ArrayList<>(dueWordIds.size());
+        for (String wordId : dueWordIds) {
+            Word word = wordsById.get(wordId);
+            if (word != null) {
+                due.add(word);
+            }
         }
+        return due.isEmpty() ? words : due;
+    }
 
-        totalQuestions = quizQuestions.size();
-        correctAnswers = 0;
+    private void updateUIWithWords(List<Word> questionWords, List<Word> courseWords) {
+        // Questions are shuffled and built as the quiz reaches them, not all up front; ones still
+        // being built are shown from the main thread when ready
+        QuizQuestionDeck deck = new QuizQuestionDeck(questionWords, courseWords, new Random(),
+                new Handler(Looper.getMainLooper())::post);
+        session = new QuizSession(deck, this::loadQuestion);
         updateScore();
     }
 
@@ -128,6 +177,12 @@ public class QuizFragment extends Fragment {
         tvQuestion.setText(question.getQuestion());
         for (int i = 0; i < optionButtons.length; i++) {
             Button optionButton = optionButtons[i];
+            // Courses with fewer than four distinct meanings get fewer options
+            if (i >= question.getOptions().size()) {
+                optionButton.setVisibility(View.GONE);
+                continue;
+            }
+            optionButton.setVisibility(View.VISIBLE);
             optionButtons[i].setText(question.getOptions().get(i));
             optionButtons[i].setEnabled(true);
             optionButtons[i].setBackgroundColor(Color.parseColor("#8692f7"));
@@ -145,12 +200,12 @@ public class QuizFragment extends Fragment {
     private void onOptionSelected(Button selectedButton, String correctAnswer) {
         String selectedAnswer = selectedButton.getText().toString();
 
-        boolean isCorrect = selectedAnswer.equals(correctAnswer);
+        boolean isCorrect = session.answer(selectedAnswer);
+        recordReview(isCorrect);
 
         selectedButton.setBackgroundColor(isCorrect ? Color.GREEN : Color.RED);
 
         if (isCorrect) {
-            correctAnswers++;
             playAudio(true);
             updateScore();
         }
@@ -164,20 +219,23 @@ public class QuizFragment extends Fragment {
         btnNext.setEnabled(true);
     }
 
-    private void playAudio(boolean isCorrect) {
-        if (isCorrect) {
-            MediaPlayer mediaPlayer = MediaPlayer.create(getView().getContext(), R.raw.rightanswer);
-            mediaPlayer.start();
-        } else {
-            MediaPlayer mediaPlayer = MediaPlayer.create(getView().getContext(), R.raw.wronganswer);
-            mediaPlayer.start();
+    private void recordReview(boolean isCorrect) {
+        if (auth.getCurrentUser() == null) {
+            return;
         }
+        String wordId = session.currentWord().getId();
+        ReviewRepository.getInstance(requireContext()).recordReview(auth.getCurrentUser().getUid(), course, wordId,
+                isCorrect ? CORRECT_GRADE : WRONG_GRADE);
+    }
+
+    private void playAudio(boolean isCorrect) {
+        FeedbackSounds.getInstance(requireContext()).play(isCorrect);
     }
 
     private void showCompletionDialog() {
         AlertDialog.Builder builder = new AlertDialog.Builder(getContext());
         builder.setTitle("Quiz Completed");
-        builder.setMessage("Your score: " + score);
+        builder.setMessage("Your score: " + session.getScore());
 
         builder.setPositiveButton("Go to Home", new DialogInterface.OnClickListener() {
             @Override
@@ -194,10 +252,7 @@ public class QuizFragment extends Fragment {
                 Bundle args = new Bundle();
                 args.putString("COURSE_KEY", course);
                 quizFragment.setArguments(args);
-                FragmentManager fragmentManager = getParentFragmentManager();
-                FragmentTransaction transaction = fragmentManager.beginTransaction();
-                transaction.replace(R.id.frame_layout, quizFragment);
-                transaction.commit();
+                ((MainActivity) requireActivity()).replaceScreen(quizFragment);
             }
         });
 
@@ -208,27 +263,17 @@ public class QuizFragment extends Fragment {
     private void savePointRecord() {
         auth = FirebaseAuth.getInstance();
         Point point = new Point();
-        point.setPoint(score);
+        point.setPoint(session.getScore());
         point.setUserId(auth.getCurrentUser().getUid());
         point.setCourseId(course);
 
-        databaseService.savePoint(point, new DatabaseService.SavePointCallback() {
-            @Override
-            public void onSuccess() {
-                navigateToHomeFragment();
-            }
-
-            @Override
-            public void onFailure(Exception e) {
-                Log.e("Quiz", "Failed to save point record", e);
-            }
-        });
+        // Acknowledged locally at once; the queue delivers it when the network allows
+        WriteBehindQueue.getInstance(requireContext()).enqueuePoint(point);
     }
 
     private void updateScore() {
-        if (totalQuestions > 0) {
-            score = (correctAnswers * 100) / totalQuestions;
-            tvScore.setText("Score: " + score);
+        if (session != null && session.size() > 0) {
+            tvScore.setText("Score: " + session.getScore());
         }
     }
 
@@ -247,28 +292,7 @@ public class QuizFragment extends Fragment {
     }
 
     private void navigateToHomeFragment() {
-        HomeFragment homeFragment = new HomeFragment(); // Replace with your home fragment's constructor
-        FragmentManager fragmentManager = getActivity().getSupportFragmentManager();
-        FragmentTransaction fragmentTransaction = fragmentManager.beginTransaction();
-
-        fragmentTransaction.replace(R.id.frame_layout, homeFragment); // Replace 'fragment_container' with your actual container ID
-        fragmentTransaction.addToBackStack(null); // Optional, if you want to add the transaction to the back stack
-        fragmentTransaction.commit();
-    }
-
-    private List<String> generateOptions(List<Word> words, Word correctWord) {
-        List<String> options = new ArrayList<>();
-        options.add(correctWord.getMeaning());
-
-        Random random = new Random();
-        while (options.size() < 4) {
-            Word optionWord = words.get(random.nextInt(words.size()));
-            if (!optionWord.getMeaning().equals(correctWord.getMeaning()) && !options.contains(optionWord.getMeaning())) {
-                options.add(optionWord.getMeaning());
-            }
-        }
-
-        Collections.shuffle(options);
-        return options;
+        // Closes the opened screens and returns to the retained Home tab
+        ((MainActivity) requireActivity()).showTab(R.id.home);
     }
 }
\ No newline at end of file
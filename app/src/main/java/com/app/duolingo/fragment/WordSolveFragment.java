@@ -2,12 +2,14 @@ package com.app.duolingo.fragment;
 
 import android.app.AlertDialog;
 import android.content.DialogInterface;
-import android.media.MediaPlayer;
+import android.content.res.ColorStateList;
+import android.graphics.Color;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextUtils;
+import android.text.TextWatcher;
 
 import androidx.fragment.app.Fragment;
-import androidx.fragment.app.FragmentManager;
-import androidx.fragment.app.FragmentTransaction;
 
 import android.util.Log;
 import android.view.LayoutInflater;
@@ -18,12 +20,18 @@ import android.widget.EditText;
 import android.widget.TextView;
 import android.widget.Toast;
 
-import com.app.duolingo.HomeFragment;
+import com.app.duolingo.MainActivity;
 import com.app.duolingo.R;
+import com.app.duolingo.engine.PrefixTrie;
+import com.app.duolingo.engine.WordSolveSession;
 import com.app.duolingo.models.Point;
 import com.app.duolingo.models.QuizQuestion;
 import com.app.duolingo.models.Word;
-import com.app.duolingo.services.DatabaseService;
+import com.app.duolingo.services.CourseWordRepository;
+import com.app.duolingo.services.FeedbackSounds;
+import com.app.duolingo.services.LearningBackend;
+import com.app.duolingo.services.ViewScope;
+import com.app.duolingo.services.WriteBehindQueue;
 import com.google.firebase.auth.FirebaseAuth;
 
 import java.util.Collections;
@@ -31,17 +39,15 @@ import java.util.List;
 
 public class WordSolveFragment extends Fragment {
 
+    private static final int MAX_SUGGESTIONS = 3;
+
     private String course;
-    private DatabaseService databaseService;
-    private List<Word> listWords;
-    private TextView tvTranslation, tvWSScore;
+    private WordSolveSession session;
+    private ColorStateList defaultInputColors;
+    private TextView tvTranslation, tvWSScore, tvSuggestions;
     private EditText etEnglishWord;
     private Button btnCheck, btnNext;
     private FirebaseAuth auth;
-    private int currentQuestionIndex = 0;
-    private int correctAnswers = 0;
-    private int totalQuestions = 0;
-    private int score = 0;
 
     public WordSolveFragment() {
         // Required empty public constructor
@@ -59,13 +65,13 @@ public class WordSolveFragment extends Fragment {
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         course = getArguments().getString("COURSE_KEY");
-        databaseService = new DatabaseService();
     }
 
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container,
                              Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.fragment_word_solve, container, false);
+        FeedbackSounds.getInstance(requireContext());
 
         course = getArguments().getString("COURSE_ID");
 
@@ -74,13 +80,14 @@ public class WordSolveFragment extends Fragment {
         btnCheck = view.findViewById(R.id.btnCheck);
         btnNext = view.findViewById(R.id.btnNext);
         tvWSScore = view.findViewById(R.id.tvWSScore);
+        tvSuggestions = view.findViewById(R.id.tvSuggestions);
+        defaultInputColors = etEnglishWord.getTextColors();
 
         updateScore();
 
         btnNext.setOnClickListener(v -> {
-            if (currentQuestionIndex < listWords.size() - 1) {
-                currentQuestionIndex++;
-                loadQuestion(listWords.get(currentQuestionIndex));
+            if (session.hasNext()) {
+                loadQuestion(session.next());
             } else {
                 showCompletionDialog();
             }
@@ -90,16 +97,33 @@ public class WordSolveFragment extends Fragment {
             checkAnswer();
         });
 
+        etEnglishWord.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                showTypingFeedback(s);
+            }
+        });
+
         fetchWordsForSolve();
 
         return view;
     }
 
     private void checkAnswer() {
-        String answer = etEnglishWord.getText().toString().toLowerCase();
-        if (answer.equals(listWords.get(currentQuestionIndex).getEnglish().toLowerCase())) {
+        int result = session.check(etEnglishWord.getText());
+        if (result != WordSolveSession.WRONG) {
             etEnglishWord.setCompoundDrawablesWithIntrinsicBounds(0, 0, R.drawable.baseline_check_24, 0);
-            correctAnswers++;
+            if (result == WordSolveSession.ALMOST) {
+                Toast.makeText(getContext(), "Almost: " + session.currentWord().getEnglish(), Toast.LENGTH_SHORT).show();
+            }
             playAudio(true);
             btnCheck.setEnabled(false);
         }else {
@@ -110,14 +134,32 @@ public class WordSolveFragment extends Fragment {
         btnNext.setEnabled(true);
     }
 
+    // Marks input that no course word starts with and lists course words it could still become
+    private void showTypingFeedback(Editable typed) {
+        if (session == null) {
+            return;
+        }
+        boolean offTrack = session.typingStatus(typed) == PrefixTrie.OFF_TRACK;
+        if (offTrack) {
+            etEnglishWord.setTextColor(Color.RED);
+        } else {
+            etEnglishWord.setTextColor(defaultInputColors);
+        }
+        if (typed.length() == 0 || offTrack) {
+            tvSuggestions.setText("");
+        } else {
+            tvSuggestions.setText(TextUtils.join(", ", session.completions(typed, MAX_SUGGESTIONS)));
+        }
+    }
+
     private void fetchWordsForSolve() {
-        databaseService.fetchCourseWords(course, new DatabaseService.Callback<List<Word>>() {
+        ViewScope.bind(getViewLifecycleOwner(), CourseWordRepository.getInstance(requireContext()).loadCourseWords(course)).then(new LearningBackend.Callback<List<Word>>() {
             @Override
             public void onResult(List<Word> words) {
-                listWords = words;
-                Collections.shuffle(listWords);
-                loadQuestion(listWords.get(currentQuestionIndex));
-                totalQuestions = listWords.size();
+                Collections.shuffle(words);
+                session = new WordSolveSession(words);
+                loadQuestion(session.currentWord());
+                updateScore();
             }
 
             @Override
@@ -138,12 +180,13 @@ public class WordSolveFragment extends Fragment {
     private void showCompletionDialog() {
         AlertDialog.Builder builder = new AlertDialog.Builder(getContext());
         builder.setTitle("Word Solve Completed");
-        builder.setMessage("Your score: " + score);
+        builder.setMessage("Your score: " + session.getScore());
 
         builder.setPositiveButton("Go to Home", new DialogInterface.OnClickListener() {
             @Override
             public void onClick(DialogInterface dialog, int which) {
                 savePointRecord();
+                navigateToHomeFragment();
             }
         });
 
@@ -151,10 +194,7 @@ public class WordSolveFragment extends Fragment {
             @Override
             public void onClick(DialogInterface dialog, int which) {
                 WordSolveFragment wordSolveFragment = WordSolveFragment.newInstance(course);
-                FragmentManager fragmentManager = getParentFragmentManager();
-                FragmentTransaction transaction = fragmentManager.beginTransaction();
-                transaction.replace(R.id.frame_layout, wordSolveFragment);
-                transaction.commit();
+                ((MainActivity) requireActivity()).replaceScreen(wordSolveFragment);
             }
         });
 
@@ -163,49 +203,28 @@ public class WordSolveFragment extends Fragment {
     }
 
     private void playAudio(boolean isCorrect) {
-        if (isCorrect) {
-            MediaPlayer mediaPlayer = MediaPlayer.create(getView().getContext(), R.raw.rightanswer);
-            mediaPlayer.start();
-        } else {
-            MediaPlayer mediaPlayer = MediaPlayer.create(getView().getContext(), R.raw.wronganswer);
-            mediaPlayer.start();
-        }
+        FeedbackSounds.getInstance(requireContext()).play(isCorrect);
     }
 
     private void savePointRecord() {
         auth = FirebaseAuth.getInstance();
         Point point = new Point();
-        point.setPoint(score);
+        point.setPoint(session.getScore());
         point.setUserId(auth.getCurrentUser().getUid());
         point.setCourseId(course);
 
-        databaseService.savePoint(point, new DatabaseService.SavePointCallback() {
-            @Override
-            public void onSuccess() {
-                navigateToHomeFragment();
-            }
-
-            @Override
-            public void onFailure(Exception e) {
-                Log.e("Quiz", "Failed to save point record", e);
-            }
-        });
+        // Acknowledged locally at once; the queue delivers it when the network allows
+        WriteBehindQueue.getInstance(requireContext()).enqueuePoint(point);
     }
 
     private void navigateToHomeFragment() {
-        HomeFragment homeFragment = new HomeFragment(); // Replace with your home fragment's constructor
-        FragmentManager fragmentManager = getActivity().getSupportFragmentManager();
-        FragmentTransaction fragmentTransaction = fragmentManager.beginTransaction();
-
-        fragmentTransaction.replace(R.id.frame_layout, homeFragment); // Replace 'fragment_container' with your actual container ID
-        fragmentTransaction.addToBackStack(null); // Optional, if you want to add the transaction to the back stack
-        fragmentTransaction.commit();
+        // Closes the opened screens and returns to the retained Home tab
+        ((MainActivity) requireActivity()).showTab(R.id.home);
     }
 
     private void updateScore() {
-        if (totalQuestions > 0) {
-            score = (correctAnswers * 100) / totalQuestions;
-            tvWSScore.setText("Score: " + score);
+        if (session != null && session.size() > 0) {
+            tvWSScore.setText("Score: " + session.getScore());
         }
     }
 }
\ No newline at end of file
@@ -5,68 +5,78 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
 import com.app.duolingo.models.Course;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
+import com.app.duolingo.services.LearningBackend;
+import com.app.duolingo.services.LearningBackends;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 public class CoursesViewModel extends ViewModel {
 
     private final MutableLiveData<List<Course>> coursesLiveData = new MutableLiveData<>();
     private final MutableLiveData<Map<String, Progress>> progressLiveData = new MutableLiveData<>();
+    private final LearningBackend backend = LearningBackends.get();
+    private LearningBackend.Registration coursesRegistration;
+    private LearningBackend.Registration progressRegistration;
+    private String userId;
 
     public CoursesViewModel() {
-        loadCoursesFromFirebase();
-        loadProgressFromFirebase();
+        loadCourses();
     }
 
-    private void loadCoursesFromFirebase() {
-        DatabaseReference databaseReference = FirebaseDatabase.getInstance().getReference("courses");
-        databaseReference.addValueEventListener(new ValueEventListener() {
+    // Progress is shown for this user; null shows none. The owner passes the signed-in user
+    // each time it is created, so only a different user restarts the observer.
+    public void setUserId(String userId) {
+        if (progressRegistration != null && Objects.equals(this.userId, userId)) {
+            return;
+        }
+        this.userId = userId;
+        if (progressRegistration != null) {
+            progressRegistration.remove();
+            progressRegistration = null;
+        }
+        if (userId != null) {
+            loadProgress(userId);
+        }
+    }
+
+    private void loadCourses() {
+        coursesRegistration = backend.observeCourses(new LearningBackend.Callback<List<Course>>() {
             @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
-                List<Course> courseList = new ArrayList<>();
-                for (DataSnapshot courseSnapshot : dataSnapshot.getChildren()) {
-                    Course course = courseSnapshot.getValue(Course.class);
-                    courseList.add(course);
-                }
-                coursesLiveData.setValue(courseList);
+            public void onResult(List<Course> courseList) {
+                coursesLiveData.postValue(courseList);
             }
 
             @Override
-            public void onCancelled(DatabaseError databaseError) {
+            public void onError(Exception e) {
                 // Handle possible errors.
             }
         });
     }
 
-    private void loadProgressFromFirebase() {
-        DatabaseReference progressRef = FirebaseDatabase.getInstance().getReference("progress");
-
-        progressRef.addValueEventListener(new ValueEventListener() {
+    private void loadProgress(String userId) {
+        progressRegistration = backend.observeProgress(userId, new LearningBackend.Callback<Map<String, Progress>>() {
             @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
-                Map<String, Progress> progressMap = new HashMap<>();
-                for (DataSnapshot progressSnapshot : dataSnapshot.getChildren()) {
-                    Progress progress = progressSnapshot.getValue(Progress.class);
-                    progressMap.put(progress.getCourseId(), progress);
-                }
-                progressLiveData.setValue(progressMap);
+            public void onResult(Map<String, Progress> progressMap) {
+                progressLiveData.postValue(progressMap);
             }
 
             @Override
-            public void onCancelled(DatabaseError databaseError) {
+            public void onError(Exception e) {
                 // Handle possible errors.
             }
         });
     }
 
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        coursesRegistration.remove();
+        if (progressRegistration != null) {
+            progressRegistration.remove();
+        }
+    }
 
     public LiveData<List<Course>> getCourses() {
         return coursesLiveData;
@@ -77,4 +87,3 @@ public class CoursesViewModel extends ViewModel {
     }
 
 }
-
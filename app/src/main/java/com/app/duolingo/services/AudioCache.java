@@ -0,0 +1,226 @@
+package com.app.duolingo.services;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Pronunciation clips on disk, keyed by sound URL and bounded by total size. The least recently
+// played clip is evicted first; recency survives restarts through the files' modification times.
+// Concurrent fetches of the same URL share one download, and clips marked in use are never
+// evicted. Lookups and file touches run on a disk thread; callbacks run on the main thread.
+public class AudioCache {
+
+    private static final String TAG = "AudioCache";
+    private static final long MAX_BYTES = 20L * 1024 * 1024;
+    private static final int DOWNLOAD_THREADS = 2;
+    private static final int TIMEOUT_MS = 15000;
+
+    private static AudioCache instance;
+
+    private final File directory;
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    private final ExecutorService downloadExecutor = Executors.newFixedThreadPool(DOWNLOAD_THREADS);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // File name -> size, least recently used first
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, List<LearningBackend.Callback<File>>> inFlightDownloads = new HashMap<>();
+    // File name -> number of players holding it
+    private final Map<String, Integer> inUse = new HashMap<>();
+    private long totalBytes;
+
+    public static synchronized AudioCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new AudioCache(new File(context.getApplicationContext().getCacheDir(), "pronunciations"));
+        }
+        return instance;
+    }
+
+    private AudioCache(File directory) {
+        this.directory = directory;
+        directory.mkdirs();
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : files) {
+            if (file.getName().endsWith(".tmp")) {
+                // Left by a download that never finished
+                file.delete();
+                continue;
+            }
+            entries.put(file.getName(), file.length());
+            totalBytes += file.length();
+        }
+    }
+
+    public void fetch(String soundUrl, final LearningBackend.Callback<File> callback) {
+        diskExecutor.execute(() -> lookup(soundUrl, callback));
+    }
+
+    // Keeps file from being evicted until the matching markUnused
+    public synchronized void markInUse(File file) {
+        Integer count = inUse.get(file.getName());
+        inUse.put(file.getName(), count == null ? 1 : count + 1);
+    }
+
+    public synchronized void markUnused(File file) {
+        Integer count = inUse.get(file.getName());
+        if (count == null || count <= 1) {
+            inUse.remove(file.getName());
+        } else {
+            inUse.put(file.getName(), count - 1);
+        }
+    }
+
+    // Runs on diskExecutor
+    private void lookup(String soundUrl, final LearningBackend.Callback<File> callback) {
+        String name = fileName(soundUrl);
+        File file = new File(directory, name);
+        boolean cached;
+        synchronized (this) {
+            cached = entries.get(name) != null;
+        }
+        // The file is touched outside the lock, so downloads finishing meanwhile are not held up
+        if (cached && file.exists()) {
+            Metrics.getInstance().recordCacheLookup("pronunciations", true);
+            file.setLastModified(System.currentTimeMillis());
+            mainHandler.post(() -> callback.onResult(file));
+            return;
+        }
+        Metrics.getInstance().recordCacheLookup("pronunciations", false);
+        synchronized (this) {
+            Long size = cached ? entries.remove(name) : null;
+            if (size != null) {
+                // Deleted behind our back, e.g. when the system cleared the cache directory
+                totalBytes -= size;
+            }
+            List<LearningBackend.Callback<File>> waiters = inFlightDownloads.get(name);
+            if (waiters != null) {
+                waiters.add(callback);
+                return;
+            }
+            waiters = new ArrayList<>();
+            waiters.add(callback);
+            inFlightDownloads.put(name, waiters);
+        }
+
+        downloadExecutor.execute(() -> {
+            long startNanos = System.nanoTime();
+            Exception error = null;
+            try {
+                download(soundUrl, file);
+            } catch (IOException e) {
+                error = e;
+            }
+            Metrics.getInstance().recordCall("downloadPronunciation", startNanos, error == null ? file.length() : -1, error != null);
+            List<LearningBackend.Callback<File>> waiters;
+            synchronized (this) {
+                waiters = inFlightDownloads.remove(name);
+                if (error == null) {
+                    entries.put(name, file.length());
+                    totalBytes += file.length();
+                    evict(name);
+                }
+            }
+            final Exception failure = error;
+            mainHandler.post(() -> {
+                for (LearningBackend.Callback<File> waiter : waiters) {
+                    if (failure == null) {
+                        waiter.onResult(file);
+                    } else {
+                        waiter.onError(failure);
+                    }
+                }
+            });
+        });
+    }
+
+    // Downloads the clip in the background if it is not cached yet
+    public void prefetch(String soundUrl) {
+        fetch(soundUrl, new LearningBackend.Callback<File>() {
+            @Override
+            public void onResult(File result) {
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.w(TAG, "Prefetch of " + soundUrl + " failed", e);
+            }
+        });
+    }
+
+    private void download(String soundUrl, File file) throws IOException {
+        directory.mkdirs();
+        File partial = new File(directory, file.getName() + ".tmp");
+        HttpURLConnection connection = (HttpURLConnection) new URL(soundUrl).openConnection();
+        connection.setConnectTimeout(TIMEOUT_MS);
+        connection.setReadTimeout(TIMEOUT_MS);
+        try {
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                throw new IOException("HTTP " + connection.getResponseCode() + " for " + soundUrl);
+            }
+            try (InputStream in = connection.getInputStream(); OutputStream out = new FileOutputStream(partial)) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            }
+            if (!partial.renameTo(file)) {
+                throw new IOException("Could not move " + partial + " into the cache");
+            }
+        } finally {
+            connection.disconnect();
+            partial.delete();
+        }
+    }
+
+    // Must hold the lock; never evicts the clip that was just added or one being played
+    private void evict(String keep) {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (totalBytes > MAX_BYTES && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            if (eldest.getKey().equals(keep) || inUse.containsKey(eldest.getKey())) {
+                continue;
+            }
+            new File(directory, eldest.getKey()).delete();
+            totalBytes -= eldest.getValue();
+            iterator.remove();
+        }
+    }
+
+    private static String fileName(String soundUrl) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(soundUrl.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return name.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.app.duolingo.services;
+
+public interface Cancellable {
+    void cancel();
+}
@@ -0,0 +1,207 @@
+package com.app.duolingo.services;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.app.duolingo.models.Word;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Serves course words from a process-wide WordCache backed by the on-device WordStore, which is
+// kept current with delta syncs. Requests deliver on the main thread and always a list the caller
+// may modify.
+public class CourseWordRepository {
+
+    private static final String TAG = "CourseWordRepository";
+    private static final int MAX_CACHED_WORDS = 20000;
+
+    private static CourseWordRepository instance;
+
+    private final WordStore wordStore;
+    private final LearningBackend backend;
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final WordCache wordCache = new WordCache(MAX_CACHED_WORDS);
+    private final Map<String, List<LearningBackend.Callback<List<Word>>>> inFlightLoads = new HashMap<>();
+    // Downloads of courses not on disk yet, cancelled when every waiter has left
+    private final Map<String, Request<CourseWordSet>> inFlightDownloads = new HashMap<>();
+
+    public static synchronized CourseWordRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new CourseWordRepository(WordStore.getInstance(context), LearningBackends.get());
+        }
+        return instance;
+    }
+
+    private CourseWordRepository(WordStore wordStore, LearningBackend backend) {
+        this.wordStore = wordStore;
+        this.backend = backend;
+    }
+
+    public WordCache getWordCache() {
+        return wordCache;
+    }
+
+    // Served from memory when possible, otherwise from disk; a course that was synced before is
+    // refreshed in the background for the next session, so only a first open waits for the network.
+    // Concurrent loads of the same course share one in-flight load; cancelling a request leaves it,
+    // and the last one to leave stops the download.
+    public Request<List<Word>> loadCourseWords(String courseId) {
+        Request<List<Word>> request = new Request<>(mainHandler::post);
+        List<Word> cached = wordCache.get(courseId);
+        Metrics.getInstance().recordCacheLookup("course_words", cached != null);
+        if (cached != null) {
+            request.succeed(new ArrayList<>(cached));
+            return request;
+        }
+
+        LearningBackend.Callback<List<Word>> waiter = request.callback();
+        startOrJoinLoad(courseId, waiter);
+        request.onCancel(() -> leaveLoad(courseId, waiter));
+        return request;
+    }
+
+    // Warms the cache for a course the user is likely to open next. Cancelling skips or stops the
+    // download, unless a screen has asked for the same course in the meantime.
+    public Cancellable prefetch(String courseId) {
+        if (wordCache.contains(courseId)) {
+            return () -> {};
+        }
+        LearningBackend.Callback<List<Word>> prefetchWaiter = new LearningBackend.Callback<List<Word>>() {
+            @Override
+            public void onResult(List<Word> result) {
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.w(TAG, "Prefetch of course " + courseId + " failed", e);
+            }
+        };
+        startOrJoinLoad(courseId, prefetchWaiter);
+        return () -> leaveLoad(courseId, prefetchWaiter);
+    }
+
+    private void leaveLoad(String courseId, LearningBackend.Callback<List<Word>> waiter) {
+        Request<CourseWordSet> abandoned = null;
+        synchronized (inFlightLoads) {
+            List<LearningBackend.Callback<List<Word>>> waiters = inFlightLoads.get(courseId);
+            if (waiters == null || !waiters.remove(waiter) || !waiters.isEmpty()) {
+                return;
+            }
+            abandoned = inFlightDownloads.remove(courseId);
+            if (abandoned != null) {
+                inFlightLoads.remove(courseId);
+            }
+        }
+        if (abandoned != null) {
+            abandoned.cancel();
+        }
+    }
+
+    private void startOrJoinLoad(String courseId, LearningBackend.Callback<List<Word>> callback) {
+        synchronized (inFlightLoads) {
+            List<LearningBackend.Callback<List<Word>>> waiters = inFlightLoads.get(courseId);
+            if (waiters != null) {
+                waiters.add(callback);
+                return;
+            }
+            waiters = new ArrayList<>();
+            waiters.add(callback);
+            inFlightLoads.put(courseId, waiters);
+        }
+
+        diskExecutor.execute(() -> {
+            CourseWordSet local = wordStore.readCourse(courseId);
+            mainHandler.post(() -> {
+                if (local != null) {
+                    completeLoad(courseId, new ArrayList<>(local.getWords().values()), null);
+                    syncCourse(courseId, local, null);
+                } else {
+                    synchronized (inFlightLoads) {
+                        List<LearningBackend.Callback<List<Word>>> waiters = inFlightLoads.get(courseId);
+                        if (waiters.isEmpty()) {
+                            // Every waiter was a cancelled prefetch
+                            inFlightLoads.remove(courseId);
+                            return;
+                        }
+                    }
+                    Request<CourseWordSet> download = syncCourse(courseId, null, new LearningBackend.Callback<List<Word>>() {
+                        @Override
+                        public void onResult(List<Word> result) {
+                            completeLoad(courseId, result, null);
+                        }
+
+                        @Override
+                        public void onError(Exception e) {
+                            completeLoad(courseId, null, e);
+                        }
+                    });
+                    synchronized (inFlightLoads) {
+                        if (inFlightLoads.containsKey(courseId) && !download.isDone()) {
+                            inFlightDownloads.put(courseId, download);
+                        }
+                    }
+                }
+            });
+        });
+    }
+
+    private void completeLoad(String courseId, List<Word> words, Exception error) {
+        List<LearningBackend.Callback<List<Word>>> waiters;
+        synchronized (inFlightLoads) {
+            waiters = inFlightLoads.remove(courseId);
+            inFlightDownloads.remove(courseId);
+        }
+        if (words != null) {
+            wordCache.put(courseId, words);
+        }
+        if (waiters == null) {
+            return;
+        }
+        for (LearningBackend.Callback<List<Word>> waiter : waiters) {
+            if (words != null) {
+                waiter.onResult(new ArrayList<>(words));
+            } else {
+                waiter.onError(error);
+            }
+        }
+    }
+
+    private Request<CourseWordSet> syncCourse(String courseId, CourseWordSet local, final LearningBackend.Callback<List<Word>> callback) {
+        long sinceVersion = local != null ? local.getVersion() : 0;
+        long sinceMembershipVersion = local != null ? local.getMembershipVersion() : 0;
+
+        return backend.fetchCourseWordsDelta(courseId, sinceVersion, sinceMembershipVersion).then(new LearningBackend.Callback<CourseWordSet>() {
+            @Override
+            public void onResult(CourseWordSet changes) {
+                if (local == null || changes.isComplete() || !changes.getWords().isEmpty()
+                        || changes.getVersion() != local.getVersion()) {
+                    diskExecutor.execute(() -> wordStore.writeCourse(courseId, changes));
+                    if (local != null) {
+                        // The cached list predates these changes; the next load reads them from disk
+                        wordCache.invalidate(courseId);
+                    }
+                }
+                if (callback != null) {
+                    callback.onResult(new ArrayList<>(changes.getWords().values()));
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (callback != null) {
+                    callback.onError(e);
+                } else {
+                    Log.w(TAG, "Background sync of course " + courseId + " failed", e);
+                }
+            }
+        });
+    }
+}
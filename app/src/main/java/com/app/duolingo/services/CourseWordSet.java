@@ -0,0 +1,37 @@
+package com.app.duolingo.services;
+
+import com.app.duolingo.models.Word;
+
+import java.util.LinkedHashMap;
+
+// Words of a course keyed by their course_words key, in course order. A complete set holds every
+// word of the course; an incomplete one only the words that changed since the caller's version.
+public class CourseWordSet {
+    private final boolean complete;
+    private final long version;
+    private final long membershipVersion;
+    private final LinkedHashMap<String, Word> words;
+
+    public CourseWordSet(boolean complete, long version, long membershipVersion, LinkedHashMap<String, Word> words) {
+        this.complete = complete;
+        this.version = version;
+        this.membershipVersion = membershipVersion;
+        this.words = words;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getMembershipVersion() {
+        return membershipVersion;
+    }
+
+    public LinkedHashMap<String, Word> getWords() {
+        return words;
+    }
+}
@@ -1,23 +1,53 @@
 package com.app.duolingo.services;
 
+import android.os.Handler;
+import android.os.Looper;
+
 import androidx.annotation.NonNull;
 
+import com.app.duolingo.models.Course;
 import com.app.duolingo.models.CourseWord;
 import com.app.duolingo.models.Point;
 import com.app.duolingo.models.Progress;
+import com.app.duolingo.models.ReviewState;
+import com.app.duolingo.models.User;
 import com.app.duolingo.models.Word;
+import com.google.firebase.database.ChildEventListener;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ServerValue;
+import com.google.firebase.database.Transaction;
 import com.google.firebase.database.ValueEventListener;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.storage.FirebaseStorage;
+import com.google.firebase.storage.StorageMetadata;
+import com.google.firebase.storage.StorageReference;
 import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public class DatabaseService implements LearningBackend {
 
-public class DatabaseService {
+    // progress_index/{userId}/{courseId} -> key of the record under /progress
+    private static final String PROGRESS_INDEX = "progress_index";
+    // course_bundles/{courseId} -> denormalized Word payloads of a course, keyed by course_words key
+    private static final String COURSE_BUNDLES = "course_bundles";
+    // course_versions/{courseId} -> server timestamp of the last content change of a course
+    private static final String COURSE_VERSIONS = "course_versions";
+    // review_states/{userId}/{courseId}/{wordId} -> ReviewState of one word
+    private static final String REVIEW_STATES = "review_states";
+    private static final int MAX_WORD_FETCHES_IN_FLIGHT = 64;
 
     private DatabaseReference databaseReference;
 
@@ -25,63 +55,63 @@ public class DatabaseService {
         databaseReference = FirebaseDatabase.getInstance().getReference();
     }
 
+    // Monotonic max in a single transaction: never lowers progress written from another device
+    @Override
     public void updateLearnProgress(String progressRecordRefId, int progressPercentage, final Callback<Void> callback) {
-        DatabaseReference progressUpdateRef = FirebaseDatabase.getInstance().getReference()
-                .child("progress").child(progressRecordRefId);
+        DatabaseReference learnProgressRef = databaseReference.child("progress").child(progressRecordRefId).child("learnProgress");
 
-        progressUpdateRef.addListenerForSingleValueEvent(new ValueEventListener() {
+        learnProgressRef.runTransaction(new Transaction.Handler() {
+            @NonNull
             @Override
-            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                if (dataSnapshot.exists()) {
-                    Integer currentLearnProgress = dataSnapshot.child("learnProgress").getValue(Integer.class);
-                    if (currentLearnProgress == null || progressPercentage > currentLearnProgress) {
-                        progressUpdateRef.child("learnProgress").setValue(progressPercentage)
-                                .addOnSuccessListener(aVoid -> callback.onResult(null))
-                                .addOnFailureListener(callback::onError);
-                    }
+            public Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                Double currentLearnProgress = currentData.getValue(Double.class);
+                if (currentLearnProgress != null && currentLearnProgress >= progressPercentage) {
+                    return Transaction.abort();
                 }
+                currentData.setValue(progressPercentage);
+                return Transaction.success(currentData);
             }
 
             @Override
-            public void onCancelled(@NonNull DatabaseError databaseError) {
-                callback.onError(databaseError.toException());
+            public void onComplete(DatabaseError databaseError, boolean committed, DataSnapshot currentData) {
+                if (databaseError != null) {
+                    callback.onError(databaseError.toException());
+                } else {
+                    callback.onResult(null);
+                }
             }
         });
     }
 
-    public void getProgressRecordRefId(String userId, String courseId, final Callback<String> callback) {
-        DatabaseReference progressRef = FirebaseDatabase.getInstance().getReference().child("progress");
-        progressRef.addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                boolean recordFound = false;
-                String progressRecordRefId = null;
-
-                for (DataSnapshot progressSnapshot : dataSnapshot.getChildren()) {
-                    String userIdInRecord = progressSnapshot.child("userId").getValue(String.class);
-                    String courseIdInRecord = progressSnapshot.child("courseId").getValue(String.class);
+    @Override
+    public void updateReviewProgress(String progressRecordRefId, int reviewPercentage, final Callback<Void> callback) {
+        databaseReference.child("progress").child(progressRecordRefId).child("reviewProgress").setValue(reviewPercentage)
+                .addOnSuccessListener(aVoid -> callback.onResult(null))
+                .addOnFailureListener(callback::onError);
+    }
 
-                    if (userId.equals(userIdInRecord) && courseId.equals(courseIdInRecord)) {
-                        progressRecordRefId = progressSnapshot.getKey();
-                        recordFound = true;
-                        break;
-                    }
-                }
+    @Override
+    public void getProgressRecordRefId(String userId, String courseId, final Callback<String> callback) {
+        lookupProgressRecord(userId, courseId, true, callback);
+    }
 
-                if (!recordFound) {
-                    DatabaseReference newProgressRef = FirebaseDatabase.getInstance().getReference().child("progress").push();
-                    progressRecordRefId = newProgressRef.getKey();
-                    Progress newProgress = new Progress();
-                    newProgress.setUserId(userId);
-                    newProgress.setCourseId(courseId);
-                    newProgress.setLearnProgress(0);
-                    newProgress.setReviewProgress(0);
-                    newProgressRef.setValue(newProgress);
-                    callback.onResult(newProgressRef.getKey());
-                }
+    @Override
+    public void findProgressRecordRefId(String userId, String courseId, final Callback<String> callback) {
+        lookupProgressRecord(userId, courseId, false, callback);
+    }
 
-                if (recordFound) {
+    // With forWriting a missing record is created; without it a missing record is reported as null.
+    // Either way a legacy record found by the scan is indexed.
+    private void lookupProgressRecord(String userId, String courseId, boolean forWriting, final Callback<String> callback) {
+        DatabaseReference indexRef = databaseReference.child(PROGRESS_INDEX).child(userId).child(courseId);
+        indexRef.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
+                String progressRecordRefId = dataSnapshot.getValue(String.class);
+                if (progressRecordRefId != null) {
                     callback.onResult(progressRecordRefId);
+                } else {
+                    findLegacyProgressRecord(userId, courseId, forWriting, callback);
                 }
             }
 
@@ -92,42 +122,28 @@ public class DatabaseService {
         });
     }
 
-    public void fetchCourseWords(String courseId, final Callback<List<Word>> callback) {
-        List<Task<DataSnapshot>> tasks = new ArrayList<>();
-
-        databaseReference.child("course_words").orderByChild("courseId").equalTo(courseId)
+    // Records written before progress_index existed are only reachable by scanning. The scan is
+    // limited to the user's own records (add ".indexOn": ["userId"] to the progress rules so it
+    // runs server side) and the result is indexed, so it happens at most once per user and course.
+    private void findLegacyProgressRecord(String userId, String courseId, boolean forWriting, final Callback<String> callback) {
+        databaseReference.child("progress").orderByChild("userId").equalTo(userId)
                 .addListenerForSingleValueEvent(new ValueEventListener() {
                     @Override
                     public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                        if (dataSnapshot.exists()) {
-                            for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                                CourseWord courseWord = snapshot.getValue(CourseWord.class);
-                                if (courseWord != null) {
-                                    Task<DataSnapshot> wordFetchTask = databaseReference.child("words").child(courseWord.getWordId()).get();
-                                    tasks.add(wordFetchTask);
-                                }
+                        for (DataSnapshot progressSnapshot : dataSnapshot.getChildren()) {
+                            String courseIdInRecord = progressSnapshot.child("courseId").getValue(String.class);
+                            if (courseId.equals(courseIdInRecord)) {
+                                String progressRecordRefId = progressSnapshot.getKey();
+                                databaseReference.child(PROGRESS_INDEX).child(userId).child(courseId)
+                                        .setValue(progressRecordRefId);
+                                callback.onResult(progressRecordRefId);
+                                return;
                             }
-
-                            Tasks.whenAllComplete(tasks).addOnCompleteListener(new OnCompleteListener<List<Task<?>>>() {
-                                @Override
-                                public void onComplete(@NonNull Task<List<Task<?>>> task) {
-                                    if (task.isSuccessful()) {
-                                        List<Word> words = new ArrayList<>();
-                                        for (Task<DataSnapshot> wordTask : tasks) {
-                                            DataSnapshot wordSnapshot = wordTask.getResult();
-                                            Word word = wordSnapshot.getValue(Word.class);
-                                            if (word != null) {
-                                                words.add(word);
-                                            }
-                                        }
-                                        callback.onResult(words);
-                                    } else {
-                                        callback.onError(task.getException());
-                                    }
-                                }
-                            });
+                        }
+                        if (forWriting) {
+                            createProgressRecord(userId, courseId, callback);
                         } else {
-                            callback.onResult(new ArrayList<>()); // No course words found
+                            callback.onResult(null);
                         }
                     }
 
@@ -138,6 +154,341 @@ public class DatabaseService {
                 });
     }
 
+    private void createProgressRecord(String userId, String courseId, final Callback<String> callback) {
+        String progressRecordRefId = databaseReference.child("progress").push().getKey();
+        Progress newProgress = new Progress();
+        newProgress.setUserId(userId);
+        newProgress.setCourseId(courseId);
+        newProgress.setLearnProgress(0);
+        newProgress.setReviewProgress(0);
+
+        // Record and index entry are written atomically so the index never points at nothing
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("progress/" + progressRecordRefId, newProgress);
+        updates.put(PROGRESS_INDEX + "/" + userId + "/" + courseId, progressRecordRefId);
+        databaseReference.updateChildren(updates);
+        callback.onResult(progressRecordRefId);
+    }
+
+    // One-time backfill of progress_index for every existing push-ID record. Reads /progress once;
+    // afterwards every lookup is a single point read. Returns the number of indexed records.
+    public void migrateProgressIndex(final Callback<Integer> callback) {
+        databaseReference.child("progress").addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
+                Map<String, Object> updates = new HashMap<>();
+                for (DataSnapshot progressSnapshot : dataSnapshot.getChildren()) {
+                    String userIdInRecord = progressSnapshot.child("userId").getValue(String.class);
+                    String courseIdInRecord = progressSnapshot.child("courseId").getValue(String.class);
+                    if (userIdInRecord != null && courseIdInRecord != null) {
+                        updates.put(PROGRESS_INDEX + "/" + userIdInRecord + "/" + courseIdInRecord, progressSnapshot.getKey());
+                    }
+                }
+                if (updates.isEmpty()) {
+                    callback.onResult(0);
+                    return;
+                }
+                int indexed = updates.size();
+                databaseReference.updateChildren(updates)
+                        .addOnSuccessListener(aVoid -> callback.onResult(indexed))
+                        .addOnFailureListener(callback::onError);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError databaseError) {
+                callback.onError(databaseError.toException());
+            }
+        });
+    }
+
+    @Override
+    public void fetchCourseWords(String courseId, final Callback<List<Word>> callback) {
+        Request<CourseWordSet> request = new Request<>(Runnable::run);
+        fetchCourseBundle(courseId, request);
+        request.then(new Callback<CourseWordSet>() {
+            @Override
+            public void onResult(CourseWordSet result) {
+                callback.onResult(new ArrayList<>(result.getWords().values()));
+            }
+
+            @Override
+            public void onError(Exception e) {
+                callback.onError(e);
+            }
+        });
+    }
+
+    // Returns only the bundle entries stamped after sinceVersion. Falls back to the complete bundle
+    // when words were added or removed after sinceMembershipVersion or the bundle has to be rebuilt.
+    // Needs ".indexOn": ["updatedAt"] on course_bundles/$courseId/words.
+    @Override
+    public Request<CourseWordSet> fetchCourseWordsDelta(String courseId, long sinceVersion, long sinceMembershipVersion) {
+        // Firebase already calls back on the main thread
+        Request<CourseWordSet> request = new Request<>(Runnable::run);
+        DatabaseReference bundleRef = databaseReference.child(COURSE_BUNDLES).child(courseId);
+        Task<DataSnapshot> bundleVersionTask = bundleRef.child("updatedAt").get();
+        Task<DataSnapshot> membershipVersionTask = bundleRef.child("membershipUpdatedAt").get();
+        Task<DataSnapshot> courseVersionTask = databaseReference.child(COURSE_VERSIONS).child(courseId).get();
+
+        Tasks.whenAllComplete(bundleVersionTask, membershipVersionTask, courseVersionTask).addOnCompleteListener(new OnCompleteListener<List<Task<?>>>() {
+            @Override
+            public void onComplete(@NonNull Task<List<Task<?>>> task) {
+                if (request.isCancelled()) {
+                    return;
+                }
+                for (Task<DataSnapshot> versionTask : Arrays.asList(bundleVersionTask, membershipVersionTask, courseVersionTask)) {
+                    if (!versionTask.isSuccessful()) {
+                        request.fail(versionTask.getException());
+                        return;
+                    }
+                }
+                Long bundleVersion = bundleVersionTask.getResult().getValue(Long.class);
+                Long membershipVersion = membershipVersionTask.getResult().getValue(Long.class);
+                Long courseVersion = courseVersionTask.getResult().getValue(Long.class);
+
+                if (bundleVersion == null || membershipVersion == null
+                        || (courseVersion != null && bundleVersion < courseVersion)
+                        || membershipVersion > sinceMembershipVersion) {
+                    fetchCourseBundle(courseId, request);
+                } else if (bundleVersion <= sinceVersion) {
+                    request.succeed(new CourseWordSet(false, bundleVersion, membershipVersion, new LinkedHashMap<>()));
+                } else {
+                    bundleRef.child("words").orderByChild("updatedAt").startAfter(sinceVersion).get()
+                            .addOnSuccessListener(snapshot -> {
+                                if (!request.isCancelled()) {
+                                    request.succeed(new CourseWordSet(false, bundleVersion, membershipVersion, readBundleWords(snapshot)));
+                                }
+                            })
+                            .addOnFailureListener(request::fail);
+                }
+            }
+        });
+        return request;
+    }
+
+    // Rebuilds course_bundles/{courseId} from course_words and words. Content tooling should call
+    // markCourseChanged after editing either node; the next fetch then rebuilds automatically.
+    public void rebuildCourseBundle(String courseId, final Callback<List<Word>> callback) {
+        Task<DataSnapshot> bundleTask = databaseReference.child(COURSE_BUNDLES).child(courseId).get();
+        Task<DataSnapshot> versionTask = databaseReference.child(COURSE_VERSIONS).child(courseId).get();
+
+        Tasks.whenAllSuccess(bundleTask, versionTask)
+                .addOnSuccessListener(results -> {
+                    Request<CourseWordSet> request = new Request<>(Runnable::run);
+                    fetchCourseWordsByJoin(courseId, versionTask.getResult().getValue(Long.class), bundleTask.getResult(), request);
+                    request.then(new Callback<CourseWordSet>() {
+                        @Override
+                        public void onResult(CourseWordSet result) {
+                            callback.onResult(new ArrayList<>(result.getWords().values()));
+                        }
+
+                        @Override
+                        public void onError(Exception e) {
+                            callback.onError(e);
+                        }
+                    });
+                })
+                .addOnFailureListener(callback::onError);
+    }
+
+    public void markCourseChanged(String courseId, final Callback<Void> callback) {
+        databaseReference.child(COURSE_VERSIONS).child(courseId).setValue(ServerValue.TIMESTAMP)
+                .addOnSuccessListener(aVoid -> callback.onResult(null))
+                .addOnFailureListener(callback::onError);
+    }
+
+    private void fetchCourseBundle(String courseId, final Request<CourseWordSet> request) {
+        Task<DataSnapshot> bundleTask = databaseReference.child(COURSE_BUNDLES).child(courseId).get();
+        Task<DataSnapshot> versionTask = databaseReference.child(COURSE_VERSIONS).child(courseId).get();
+
+        Tasks.whenAllComplete(bundleTask, versionTask).addOnCompleteListener(new OnCompleteListener<List<Task<?>>>() {
+            @Override
+            public void onComplete(@NonNull Task<List<Task<?>>> task) {
+                // Nobody waits for the words any more, so they are not deserialized
+                if (request.isCancelled()) {
+                    return;
+                }
+                Long courseVersion = versionTask.isSuccessful() ? versionTask.getResult().getValue(Long.class) : null;
+                DataSnapshot bundleSnapshot = bundleTask.isSuccessful() ? bundleTask.getResult() : null;
+                if (bundleSnapshot != null && isBundleFresh(bundleSnapshot, courseVersion)) {
+                    long bundleVersion = bundleSnapshot.child("updatedAt").getValue(Long.class);
+                    Long membershipVersion = bundleSnapshot.child("membershipUpdatedAt").getValue(Long.class);
+                    request.succeed(new CourseWordSet(true, bundleVersion,
+                            membershipVersion != null ? membershipVersion : bundleVersion,
+                            readBundleWords(bundleSnapshot.child("words"))));
+                } else {
+                    fetchCourseWordsByJoin(courseId, courseVersion, bundleSnapshot, request);
+                }
+            }
+        });
+    }
+
+    private boolean isBundleFresh(DataSnapshot bundleSnapshot, Long courseVersion) {
+        if (!bundleSnapshot.exists()) {
+            return false;
+        }
+        Long bundleVersion = bundleSnapshot.child("updatedAt").getValue(Long.class);
+        if (bundleVersion == null) {
+            return false;
+        }
+        return courseVersion == null || bundleVersion >= courseVersion;
+    }
+
+    // Children are keyed by the course_words push key, so iteration order is the course order
+    private LinkedHashMap<String, Word> readBundleWords(DataSnapshot wordsSnapshot) {
+        LinkedHashMap<String, Word> words = new LinkedHashMap<>();
+        for (DataSnapshot wordSnapshot : wordsSnapshot.getChildren()) {
+            Word word = wordSnapshot.getValue(Word.class);
+            if (word != null) {
+                words.put(wordSnapshot.getKey(), word);
+            }
+        }
+        return words;
+    }
+
+    // Word payloads are fetched MAX_WORD_FETCHES_IN_FLIGHT at a time, so cancelling the request
+    // drops the fetches not yet sent along with the course_words listener
+    private void fetchCourseWordsByJoin(String courseId, Long courseVersion, DataSnapshot previousBundle, final Request<CourseWordSet> request) {
+        // Stamped with the course version the join started from, so an edit made while the join is
+        // running leaves the bundle stale instead of hiding the change
+        long stamp = courseVersion != null ? courseVersion : System.currentTimeMillis();
+        Query courseWordsQuery = databaseReference.child("course_words").orderByChild("courseId").equalTo(courseId);
+
+        ValueEventListener listener = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
+                if (request.isCancelled()) {
+                    return;
+                }
+                if (!dataSnapshot.exists()) {
+                    request.succeed(new CourseWordSet(true, 0, 0, new LinkedHashMap<>())); // No course words found
+                    return;
+                }
+                List<String> courseWordKeys = new ArrayList<>();
+                List<String> wordIds = new ArrayList<>();
+                for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
+                    CourseWord courseWord = snapshot.getValue(CourseWord.class);
+                    if (courseWord != null) {
+                        courseWordKeys.add(snapshot.getKey());
+                        wordIds.add(courseWord.getWordId());
+                    }
+                }
+                new WordJoin(courseId, stamp, previousBundle, courseWordKeys, wordIds, request).start();
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError databaseError) {
+                request.fail(databaseError.toException());
+            }
+        };
+        courseWordsQuery.addListenerForSingleValueEvent(listener);
+        request.onCancel(() -> courseWordsQuery.removeEventListener(listener));
+    }
+
+    // Fetches the words of one join in order, keeping a bounded number of reads in flight. Runs on
+    // the main thread, where Firebase delivers its results.
+    private class WordJoin {
+        private final String courseId;
+        private final long stamp;
+        private final DataSnapshot previousBundle;
+        private final List<String> courseWordKeys;
+        private final List<String> wordIds;
+        private final Request<CourseWordSet> request;
+        private final Word[] words;
+        private int nextFetch;
+        private int pending;
+        private boolean complete = true;
+
+        WordJoin(String courseId, long stamp, DataSnapshot previousBundle, List<String> courseWordKeys,
+                 List<String> wordIds, Request<CourseWordSet> request) {
+            this.courseId = courseId;
+            this.stamp = stamp;
+            this.previousBundle = previousBundle;
+            this.courseWordKeys = courseWordKeys;
+            this.wordIds = wordIds;
+            this.request = request;
+            this.words = new Word[wordIds.size()];
+        }
+
+        void start() {
+            if (wordIds.isEmpty()) {
+                finish();
+                return;
+            }
+            while (nextFetch < wordIds.size() && pending < MAX_WORD_FETCHES_IN_FLIGHT) {
+                fetchNext();
+            }
+        }
+
+        private void fetchNext() {
+            int index = nextFetch++;
+            pending++;
+            databaseReference.child("words").child(wordIds.get(index)).get().addOnCompleteListener(task -> {
+                pending--;
+                if (request.isCancelled()) {
+                    return;
+                }
+                if (task.isSuccessful()) {
+                    words[index] = task.getResult().getValue(Word.class);
+                } else {
+                    complete = false;
+                }
+                if (nextFetch < wordIds.size()) {
+                    fetchNext();
+                } else if (pending == 0) {
+                    finish();
+                }
+            });
+        }
+
+        private void finish() {
+            LinkedHashMap<String, Word> joined = new LinkedHashMap<>();
+            for (int i = 0; i < words.length; i++) {
+                if (words[i] != null) {
+                    joined.put(courseWordKeys.get(i), words[i]);
+                }
+            }
+            if (complete) {
+                long membershipVersion = writeCourseBundle(courseId, stamp, joined, previousBundle);
+                request.succeed(new CourseWordSet(true, stamp, membershipVersion, joined));
+            } else {
+                // Not cached anywhere, so version 0 makes the next sync fetch it again
+                request.succeed(new CourseWordSet(true, 0, 0, joined));
+            }
+        }
+    }
+
+    // Entries whose content is unchanged keep their previous stamp, and the membership stamp only
+    // moves when words were added or removed, so delta readers transfer just what actually changed
+    private long writeCourseBundle(String courseId, long stamp, LinkedHashMap<String, Word> words, DataSnapshot previousBundle) {
+        boolean hasPrevious = previousBundle != null && previousBundle.exists();
+        Map<String, Word> previousWords = hasPrevious ? readBundleWords(previousBundle.child("words")) : new HashMap<>();
+        for (Map.Entry<String, Word> entry : words.entrySet()) {
+            Word previous = previousWords.get(entry.getKey());
+            entry.getValue().setUpdatedAt(previous != null && sameContent(previous, entry.getValue()) ? previous.getUpdatedAt() : stamp);
+        }
+        Long previousMembershipVersion = hasPrevious ? previousBundle.child("membershipUpdatedAt").getValue(Long.class) : null;
+        long membershipVersion = previousMembershipVersion != null && previousWords.keySet().equals(words.keySet())
+                ? previousMembershipVersion : stamp;
+
+        Map<String, Object> bundle = new HashMap<>();
+        bundle.put("courseId", courseId);
+        bundle.put("updatedAt", stamp);
+        bundle.put("membershipUpdatedAt", membershipVersion);
+        bundle.put("wordCount", words.size());
+        bundle.put("words", words);
+        databaseReference.child(COURSE_BUNDLES).child(courseId).setValue(bundle);
+        return membershipVersion;
+    }
+
+    private boolean sameContent(Word a, Word b) {
+        return Objects.equals(a.getId(), b.getId())
+                && Objects.equals(a.getEnglish(), b.getEnglish())
+                && Objects.equals(a.getMeaning(), b.getMeaning())
+                && Objects.equals(a.getPronounce(), b.getPronounce())
+                && Objects.equals(a.getSound(), b.getSound());
+    }
+
     public void savePoint(Point point, SavePointCallback callback) {
         DatabaseReference databaseReference = FirebaseDatabase.getInstance().getReference();
         databaseReference.child("points").push().setValue(point)
@@ -149,14 +500,200 @@ public class DatabaseService {
                 });
     }
 
+    @Override
+    public Registration observeCourses(final Callback<List<Course>> callback) {
+        DatabaseReference coursesRef = databaseReference.child("courses");
+        ValueEventListener listener = coursesRef.addValueEventListener(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
+                List<Course> courseList = new ArrayList<>();
+                for (DataSnapshot courseSnapshot : dataSnapshot.getChildren()) {
+                    Course course = courseSnapshot.getValue(Course.class);
+                    courseList.add(course);
+                }
+                callback.onResult(courseList);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError databaseError) {
+                callback.onError(databaseError.toException());
+            }
+        });
+        return () -> coursesRef.removeEventListener(listener);
+    }
+
+    // Only the user's own records are synced, and child events apply just the entry that changed.
+    // Events raised in one main-loop turn, such as the initial load, are published as one map.
+    // Needs ".indexOn": ["userId"] on progress so the filter runs server side.
+    @Override
+    public Registration observeProgress(String userId, final Callback<Map<String, Progress>> callback) {
+        Query progressQuery = databaseReference.child("progress").orderByChild("userId").equalTo(userId);
+        Map<String, Progress> progressByKey = new HashMap<>();
+        Map<String, Progress> progressByCourse = new HashMap<>();
+        // Private to this observer, so removing it drops every publish still pending
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        ChildEventListener listener = progressQuery.addChildEventListener(new ChildEventListener() {
+            private boolean publishPending;
+
+            @Override
+            public void onChildAdded(@NonNull DataSnapshot snapshot, String previousChildName) {
+                apply(snapshot);
+            }
+
+            @Override
+            public void onChildChanged(@NonNull DataSnapshot snapshot, String previousChildName) {
+                apply(snapshot);
+            }
+
+            @Override
+            public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                forget(progressByKey.remove(snapshot.getKey()));
+                publishSoon();
+            }
+
+            @Override
+            public void onChildMoved(@NonNull DataSnapshot snapshot, String previousChildName) {
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError databaseError) {
+                callback.onError(databaseError.toException());
+            }
+
+            private void apply(DataSnapshot snapshot) {
+                Progress progress = snapshot.getValue(Progress.class);
+                if (progress != null) {
+                    forget(progressByKey.put(snapshot.getKey(), progress));
+                    progressByCourse.put(progress.getCourseId(), progress);
+                    publishSoon();
+                }
+            }
+
+            private void forget(Progress previous) {
+                if (previous != null && progressByCourse.get(previous.getCourseId()) == previous) {
+                    progressByCourse.remove(previous.getCourseId());
+                }
+            }
+
+            private void publishSoon() {
+                if (publishPending) {
+                    return;
+                }
+                publishPending = true;
+                mainHandler.post(() -> {
+                    publishPending = false;
+                    callback.onResult(new HashMap<>(progressByCourse));
+                });
+            }
+        });
+        return () -> {
+            progressQuery.removeEventListener(listener);
+            mainHandler.removeCallbacksAndMessages(null);
+        };
+    }
+
+    @Override
+    public void fetchUser(String userId, final Callback<User> callback) {
+        FirebaseFirestore.getInstance().collection("users").document(userId).get()
+                .addOnSuccessListener(documentSnapshot -> callback.onResult(documentSnapshot.toObject(User.class)))
+                .addOnFailureListener(callback::onError);
+    }
+
+    @Override
+    public void saveUser(User user, final Callback<Void> callback) {
+        FirebaseFirestore.getInstance().collection("users").document(user.getId()).set(user)
+                .addOnSuccessListener(aVoid -> callback.onResult(null))
+                .addOnFailureListener(callback::onError);
+    }
+
+    @Override
+    public void updateUser(String userId, Map<String, Object> changes, final Callback<Void> callback) {
+        FirebaseFirestore.getInstance().collection("users").document(userId).update(changes)
+                .addOnSuccessListener(aVoid -> callback.onResult(null))
+                .addOnFailureListener(callback::onError);
+    }
+
+    // Falls back to the single full-size image stored before variants existed
+    @Override
+    public void fetchProfileImageUrl(String userId, int size, final Callback<String> callback) {
+        profileImageRef(userId, size).getDownloadUrl()
+                .continueWithTask(task -> task.isSuccessful() ? task : legacyProfileImageRef(userId).getDownloadUrl())
+                .addOnSuccessListener(uri -> callback.onResult(uri.toString()))
+                .addOnFailureListener(callback::onError);
+    }
+
+    @Override
+    public void uploadProfileImage(String userId, int size, byte[] imageData, final Callback<String> callback) {
+        StorageReference imageRef = profileImageRef(userId, size);
+        StorageMetadata metadata = new StorageMetadata.Builder().setContentType("image/webp").build();
+        imageRef.putBytes(imageData, metadata)
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    return imageRef.getDownloadUrl();
+                })
+                .addOnSuccessListener(uri -> callback.onResult(uri.toString()))
+                .addOnFailureListener(callback::onError);
+    }
+
+    private StorageReference profileImageRef(String userId, int size) {
+        return FirebaseStorage.getInstance().getReference().child("profile_images/" + userId + "_" + size + ".webp");
+    }
+
+    private StorageReference legacyProfileImageRef(String userId) {
+        return FirebaseStorage.getInstance().getReference().child("profile_images/" + userId + ".jpg");
+    }
+
+    @Override
+    public String newPointKey() {
+        return databaseReference.child("points").push().getKey();
+    }
+
+    // Writes all points in one multi-path update; pointsByKey maps push keys to points
+    @Override
+    public void savePoints(Map<String, Point> pointsByKey, final Callback<Void> callback) {
+        Map<String, Object> updates = new HashMap<>();
+        for (Map.Entry<String, Point> entry : pointsByKey.entrySet()) {
+            updates.put("points/" + entry.getKey(), entry.getValue());
+        }
+        databaseReference.updateChildren(updates)
+                .addOnSuccessListener(aVoid -> callback.onResult(null))
+                .addOnFailureListener(callback::onError);
+    }
+
+    @Override
+    public void fetchReviewStates(String userId, String courseId, final Callback<List<ReviewState>> callback) {
+        databaseReference.child(REVIEW_STATES).child(userId).child(courseId).get()
+                .addOnSuccessListener(dataSnapshot -> {
+                    List<ReviewState> states = new ArrayList<>();
+                    for (DataSnapshot child : dataSnapshot.getChildren()) {
+                        ReviewState state = child.getValue(ReviewState.class);
+                        if (state != null) {
+                            state.setWordId(child.getKey());
+                            states.add(state);
+                        }
+                    }
+                    callback.onResult(states);
+                })
+                .addOnFailureListener(callback::onError);
+    }
+
+    // Writes the whole batch in one multi-path update
+    @Override
+    public void saveReviewStates(String userId, String courseId, List<ReviewState> states, final Callback<Void> callback) {
+        String path = REVIEW_STATES + "/" + userId + "/" + courseId + "/";
+        Map<String, Object> updates = new HashMap<>();
+        for (ReviewState state : states) {
+            updates.put(path + state.getWordId(), state);
+        }
+        databaseReference.updateChildren(updates)
+                .addOnSuccessListener(aVoid -> callback.onResult(null))
+                .addOnFailureListener(callback::onError);
+    }
+
     public interface SavePointCallback {
         void onSuccess();
         void onFailure(Exception e);
     }
-
-    // Define the Callback interface if it's not already globally defined
-    public interface Callback<T> {
-        void onResult(T result);
-        void onError(Exception e);
-    }
 }
@@ -0,0 +1,85 @@
+package com.app.duolingo.services;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.media.AudioAttributes;
+import android.media.SoundPool;
+
+import com.app.duolingo.R;
+
+// Right and wrong answer clips, decoded once into a SoundPool so that playing one is a single call
+// that allocates nothing. The pool is released when the app leaves the foreground or memory runs
+// low and reloaded on the next getInstance(), so native memory stays flat over long sessions.
+// Main thread only.
+public class FeedbackSounds implements ComponentCallbacks2 {
+
+    private static final int MAX_STREAMS = 2;
+
+    private static FeedbackSounds instance;
+
+    private final Context context;
+    private SoundPool soundPool;
+    private int rightAnswerSound;
+    private int wrongAnswerSound;
+
+    // Screens call this when created, so the clips are decoded before the first answer
+    public static synchronized FeedbackSounds getInstance(Context context) {
+        if (instance == null) {
+            instance = new FeedbackSounds(context.getApplicationContext());
+            instance.context.registerComponentCallbacks(instance);
+        }
+        instance.load();
+        return instance;
+    }
+
+    private FeedbackSounds(Context context) {
+        this.context = context;
+    }
+
+    public void play(boolean isCorrect) {
+        if (soundPool == null) {
+            load();
+        }
+        // A clip that is still decoding is skipped rather than delayed
+        soundPool.play(isCorrect ? rightAnswerSound : wrongAnswerSound, 1f, 1f, 1, 0, 1f);
+    }
+
+    private void load() {
+        if (soundPool != null) {
+            return;
+        }
+        soundPool = new SoundPool.Builder()
+                .setMaxStreams(MAX_STREAMS)
+                .setAudioAttributes(new AudioAttributes.Builder()
+                        .setUsage(AudioAttributes.USAGE_ASSISTANCE_SONIFICATION)
+                        .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                        .build())
+                .build();
+        rightAnswerSound = soundPool.load(context, R.raw.rightanswer, 1);
+        wrongAnswerSound = soundPool.load(context, R.raw.wronganswer, 1);
+    }
+
+    private void release() {
+        if (soundPool != null) {
+            soundPool.release();
+            soundPool = null;
+        }
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_UI_HIDDEN) {
+            release();
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        release();
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+    }
+}
@@ -0,0 +1,492 @@
+package com.app.duolingo.services;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.app.duolingo.models.Course;
+import com.app.duolingo.models.Point;
+import com.app.duolingo.models.Progress;
+import com.app.duolingo.models.ReviewState;
+import com.app.duolingo.models.User;
+import com.app.duolingo.models.Word;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// LearningBackend kept entirely in memory, for load tests and benchmarks on a plain JVM.
+// Failures are drawn from a seeded Random when a call is made, so the same call sequence always
+// fails at the same calls. Results are timed on a single backend thread and, after latencyMs,
+// handed to callbackExecutor in call order: the main thread by default, as with Firebase, so the
+// app can run against it; tests on a plain JVM pass Runnable::run.
+public class InMemoryLearningBackend implements LearningBackend {
+
+    private final long latencyMs;
+    private final double failureRate;
+    private final Random random;
+    private final Executor callbackExecutor;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "InMemoryLearningBackend");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, Course> courses = new LinkedHashMap<>();
+    private final Map<String, LinkedHashMap<String, Word>> courseWords = new HashMap<>();
+    private final Map<String, Long> courseVersions = new HashMap<>();
+    private final Map<String, Long> membershipVersions = new HashMap<>();
+    private final Map<String, Progress> progressRecords = new LinkedHashMap<>();
+    private final Map<String, String> progressIndex = new HashMap<>();
+    private final Map<String, Point> points = new LinkedHashMap<>();
+    private final Map<String, Map<String, ReviewState>> reviewStates = new HashMap<>();
+    private final Map<String, User> users = new HashMap<>();
+    private final Map<String, byte[]> profileImages = new HashMap<>();
+    private final List<Callback<List<Course>>> courseObservers = new CopyOnWriteArrayList<>();
+    private final Map<String, List<Callback<Map<String, Progress>>>> progressObservers = new ConcurrentHashMap<>();
+    private long clock;
+    private long keyCounter;
+
+    public InMemoryLearningBackend() {
+        this(0, 0, 0);
+    }
+
+    public InMemoryLearningBackend(long latencyMs, double failureRate, long seed) {
+        this(latencyMs, failureRate, seed, new Handler(Looper.getMainLooper())::post);
+    }
+
+    public InMemoryLearningBackend(long latencyMs, double failureRate, long seed, Executor callbackExecutor) {
+        this.latencyMs = latencyMs;
+        this.failureRate = failureRate;
+        this.random = new Random(seed);
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // Seeding
+
+    public void putCourse(Course course) {
+        synchronized (this) {
+            courses.put(course.getId(), course);
+        }
+        notifyCourseObservers();
+    }
+
+    // Replaces the word list of a course; keys sort in list order like push keys do
+    public synchronized void putCourseWords(String courseId, List<Word> words) {
+        long version = ++clock;
+        LinkedHashMap<String, Word> entries = new LinkedHashMap<>();
+        for (Word word : words) {
+            word.setUpdatedAt(version);
+            entries.put(nextKey("cw"), word);
+        }
+        courseWords.put(courseId, entries);
+        courseVersions.put(courseId, version);
+        membershipVersions.put(courseId, version);
+    }
+
+    // Changes the content of one word without touching the course's membership
+    public synchronized void updateCourseWord(String courseId, String courseWordKey, Word word) {
+        LinkedHashMap<String, Word> entries = courseWords.get(courseId);
+        if (entries == null || !entries.containsKey(courseWordKey)) {
+            throw new IllegalArgumentException("Unknown course word " + courseId + "/" + courseWordKey);
+        }
+        long version = ++clock;
+        word.setUpdatedAt(version);
+        entries.put(courseWordKey, word);
+        courseVersions.put(courseId, version);
+    }
+
+    public synchronized Map<String, Point> getPoints() {
+        return new LinkedHashMap<>(points);
+    }
+
+    public synchronized Progress getProgressRecord(String progressRecordRefId) {
+        return progressRecords.get(progressRecordRefId);
+    }
+
+    // Courses
+
+    @Override
+    public Registration observeCourses(Callback<List<Course>> callback) {
+        courseObservers.add(callback);
+        List<Course> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(courses.values());
+        }
+        respond(callback, snapshot);
+        return () -> courseObservers.remove(callback);
+    }
+
+    // Course words
+
+    @Override
+    public void fetchCourseWords(String courseId, Callback<List<Word>> callback) {
+        if (shouldFail()) {
+            fail(callback);
+            return;
+        }
+        List<Word> words;
+        synchronized (this) {
+            LinkedHashMap<String, Word> entries = courseWords.get(courseId);
+            words = entries != null ? new ArrayList<>(entries.values()) : new ArrayList<>();
+        }
+        respond(callback, words);
+    }
+
+    @Override
+    public Request<CourseWordSet> fetchCourseWordsDelta(String courseId, long sinceVersion, long sinceMembershipVersion) {
+        Request<CourseWordSet> request = new Request<>(Runnable::run);
+        if (shouldFail()) {
+            fail(request.callback());
+            return request;
+        }
+        CourseWordSet result;
+        synchronized (this) {
+            LinkedHashMap<String, Word> entries = courseWords.get(courseId);
+            if (entries == null) {
+                result = new CourseWordSet(true, 0, 0, new LinkedHashMap<>());
+            } else {
+                long version = courseVersions.get(courseId);
+                long membershipVersion = membershipVersions.get(courseId);
+                if (membershipVersion > sinceMembershipVersion) {
+                    result = new CourseWordSet(true, version, membershipVersion, new LinkedHashMap<>(entries));
+                } else {
+                    LinkedHashMap<String, Word> changed = new LinkedHashMap<>();
+                    for (Map.Entry<String, Word> entry : entries.entrySet()) {
+                        if (entry.getValue().getUpdatedAt() > sinceVersion) {
+                            changed.put(entry.getKey(), entry.getValue());
+                        }
+                    }
+                    result = new CourseWordSet(false, version, membershipVersion, changed);
+                }
+            }
+        }
+        respond(request.callback(), result);
+        return request;
+    }
+
+    // Progress
+
+    @Override
+    public Registration observeProgress(String userId, Callback<Map<String, Progress>> callback) {
+        List<Callback<Map<String, Progress>>> observers = progressObservers.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>());
+        observers.add(callback);
+        respond(callback, progressByCourse(userId));
+        return () -> observers.remove(callback);
+    }
+
+    @Override
+    public void getProgressRecordRefId(String userId, String courseId, Callback<String> callback) {
+        if (shouldFail()) {
+            fail(callback);
+            return;
+        }
+        String progressRecordRefId;
+        boolean created = false;
+        synchronized (this) {
+            progressRecordRefId = progressIndex.get(userId + "/" + courseId);
+            if (progressRecordRefId == null) {
+                progressRecordRefId = nextKey("progress");
+                progressRecords.put(progressRecordRefId, new Progress(null, 0, 0, userId, courseId));
+                progressIndex.put(userId + "/" + courseId, progressRecordRefId);
+                created = true;
+            }
+        }
+        if (created) {
+            notifyProgressObservers(userId);
+        }
+        respond(callback, progressRecordRefId);
+    }
+
+    @Override
+    public void findProgressRecordRefId(String userId, String courseId, Callback<String> callback) {
+        if (shouldFail()) {
+            fail(callback);
+            return;
+        }
+        String progressRecordRefId;
+        synchronized (this) {
+            progressRecordRefId = progressIndex.get(userId + "/" + courseId);
+        }
+        respond(callback, progressRecordRefId);
+    }
+
+    @Override
+    public void updateLearnProgress(String progressRecordRefId, int progressPercentage, Callback<Void> callback) {
+        if (shouldFail()) {
+            fail(callback);
+            return;
+        }
+        String changedUserId = null;
+        synchronized (this) {
+            Progress progress = progressRecords.get(progressRecordRefId);
+            if (progress != null && progressPercentage > progress.getLearnProgress()) {
+                progress.setLearnProgress(progressPercentage);
+                changedUserId = progress.getUserId();
+            }
+        }
+        if (changedUserId != null) {
+            notifyProgressObservers(changedUserId);
+        }
+        respond(callback, null);
+    }
+
+    @Override
+    public void updateReviewProgress(String progressRecordRefId, int reviewPercentage, Callback<Void> callback) {
+        if (shouldFail()) {
+            fail(callback);
+            return;
+        }
+        String changedUserId = null;
+        synchronized (this) {
+            Progress progress = progressRecords.get(progressRecordRefId);
+            if (progress != null && progress.getReviewProgress() != reviewPercentage) {
+                progress.setReviewProgress(reviewPercentage);
+                changedUserId = progress.getUserId();
+            }
+        }
+        if (changedUserId != null) {
+            notifyProgressObservers(changedUserId);
+        }
+        respond(callback, null);
+    }
+
+    // Points
+
+    @Override
+    public synchronized String newPointKey() {
+        return nextKey("point");
+    }
+
+    @Override
+    public void savePoints(Map<String, Point> pointsByKey, Callback<Void> callback) {
+        if (shouldFail()) {
+            fail(callback);
+            return;
+        }
+        synchronized (this) {
+            points.putAll(pointsByKey);
+        }
+        respond(callback, null);
+    }
+
+    // Review schedules
+
+    @Override
+    public void fetchReviewStates(String userId, String courseId, Callback<List<ReviewState>> callback) {
+        if (shouldFail()) {
+            fail(callback);
+            return;
+        }
+        List<ReviewState> states = new ArrayList<>();
+        synchronized (this) {
+            Map<String, ReviewState> stored = reviewStates.get(userId + "/" + courseId);
+            if (stored != null) {
+                states.addAll(stored.values());
+            }
+        }
+        respond(callback, states);
+    }
+
+    @Override
+    public void saveReviewStates(String userId, String courseId, List<ReviewState> states, Callback<Void> callback) {
+        if (shouldFail()) {
+            fail(callback);
+            return;
+        }
+        synchronized (this) {
+            Map<String, ReviewState> stored = reviewStates.get(userId + "/" + courseId);
+            if (stored == null) {
+                stored = new HashMap<>();
+                reviewStates.put(userId + "/" + courseId, stored);
+            }
+            for (ReviewState state : states) {
+                stored.put(state.getWordId(), state);
+            }
+        }
+        respond(callback, null);
+    }
+
+    // User profiles
+
+    @Override
+    public void fetchUser(String userId, Callback<User> callback) {
+        if (shouldFail()) {
+            fail(callback);
+            return;
+        }
+        User user;
+        synchronized (this) {
+            user = users.get(userId);
+        }
+        respond(callback, user);
+    }
+
+    @Override
+    public void saveUser(User user, Callback<Void> callback) {
+        if (shouldFail()) {
+            fail(callback);
+            return;
+        }
+        synchronized (this) {
+            users.put(user.getId(), user);
+        }
+        respond(callback, null);
+    }
+
+    @Override
+    public void updateUser(String userId, Map<String, Object> changes, Callback<Void> callback) {
+        if (shouldFail()) {
+            fail(callback);
+            return;
+        }
+        synchronized (this) {
+            User stored = users.get(userId);
+            if (stored == null) {
+                deliver(() -> callback.onError(new IOException("No user " + userId)));
+                return;
+            }
+            User updated = new User(userId, stored.getName(), stored.getAge(), stored.getPhoneNumber(),
+                    stored.getEmail(), stored.getLevel(), stored.getImageUrl());
+            for (Map.Entry<String, Object> change : changes.entrySet()) {
+                applyUserField(updated, change.getKey(), change.getValue());
+            }
+            users.put(userId, updated);
+        }
+        respond(callback, null);
+    }
+
+    private static void applyUserField(User user, String field, Object value) {
+        switch (field) {
+            case "name":
+                user.setName((String) value);
+                break;
+            case "age":
+                user.setAge(((Number) value).intValue());
+                break;
+            case "phoneNumber":
+                user.setPhoneNumber((String) value);
+                break;
+            case "email":
+                user.setEmail((String) value);
+                break;
+            case "level":
+                user.setLevel((String) value);
+                break;
+            case "imageUrl":
+                user.setImageUrl((String) value);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown user field " + field);
+        }
+    }
+
+    // Profile images
+
+    @Override
+    public void fetchProfileImageUrl(String userId, int size, Callback<String> callback) {
+        if (shouldFail()) {
+            fail(callback);
+            return;
+        }
+        boolean exists;
+        synchronized (this) {
+            exists = profileImages.containsKey(profileImageKey(userId, size));
+        }
+        if (exists) {
+            respond(callback, profileImageUrl(userId, size));
+        } else {
+            deliver(() -> callback.onError(new IOException("No profile image for " + userId)));
+        }
+    }
+
+    @Override
+    public void uploadProfileImage(String userId, int size, byte[] imageData, Callback<String> callback) {
+        if (shouldFail()) {
+            fail(callback);
+            return;
+        }
+        synchronized (this) {
+            profileImages.put(profileImageKey(userId, size), imageData.clone());
+        }
+        respond(callback, profileImageUrl(userId, size));
+    }
+
+    private static String profileImageKey(String userId, int size) {
+        return userId + "_" + size;
+    }
+
+    private String profileImageUrl(String userId, int size) {
+        return "memory://profile_images/" + profileImageKey(userId, size) + ".webp";
+    }
+
+    private String nextKey(String prefix) {
+        return String.format("%s%012d", prefix, ++keyCounter);
+    }
+
+    private synchronized boolean shouldFail() {
+        return failureRate > 0 && random.nextDouble() < failureRate;
+    }
+
+    private synchronized Map<String, Progress> progressByCourse(String userId) {
+        Map<String, Progress> progressMap = new HashMap<>();
+        for (Progress progress : progressRecords.values()) {
+            if (!userId.equals(progress.getUserId())) {
+                continue;
+            }
+            progressMap.put(progress.getCourseId(), new Progress(progress.getId(), progress.getLearnProgress(),
+                    progress.getReviewProgress(), progress.getUserId(), progress.getCourseId()));
+        }
+        return progressMap;
+    }
+
+    private void notifyCourseObservers() {
+        List<Course> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(courses.values());
+        }
+        for (Callback<List<Course>> observer : courseObservers) {
+            respond(observer, new ArrayList<>(snapshot));
+        }
+    }
+
+    private void notifyProgressObservers(String userId) {
+        List<Callback<Map<String, Progress>>> observers = progressObservers.get(userId);
+        if (observers == null) {
+            return;
+        }
+        for (Callback<Map<String, Progress>> observer : observers) {
+            respond(observer, progressByCourse(userId));
+        }
+    }
+
+    private <T> void respond(Callback<T> callback, T result) {
+        deliver(() -> callback.onResult(result));
+    }
+
+    private void fail(Callback<?> callback) {
+        deliver(() -> callback.onError(new IOException("Injected failure")));
+    }
+
+    private void deliver(Runnable delivery) {
+        Runnable handOff = () -> callbackExecutor.execute(delivery);
+        if (latencyMs > 0) {
+            scheduler.schedule(handOff, latencyMs, TimeUnit.MILLISECONDS);
+        } else {
+            scheduler.execute(handOff);
+        }
+    }
+}
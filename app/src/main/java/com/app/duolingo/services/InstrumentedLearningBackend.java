@@ -0,0 +1,154 @@
+package com.app.duolingo.services;
+
+import com.app.duolingo.models.Course;
+import com.app.duolingo.models.Point;
+import com.app.duolingo.models.Progress;
+import com.app.duolingo.models.ReviewState;
+import com.app.duolingo.models.User;
+import com.app.duolingo.models.Word;
+
+import java.util.List;
+import java.util.Map;
+
+// Records every call of the wrapped backend in Metrics under its method name. Payload sizes are
+// entry counts of what was read or written, except for profile image uploads, which are bytes.
+// Subscriptions are timed to their first result only.
+public class InstrumentedLearningBackend implements LearningBackend {
+
+    private final LearningBackend backend;
+    private final Metrics metrics;
+
+    public InstrumentedLearningBackend(LearningBackend backend, Metrics metrics) {
+        this.backend = backend;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Registration observeCourses(Callback<List<Course>> callback) {
+        return backend.observeCourses(firstTimed("observeCourses", List::size, callback));
+    }
+
+    @Override
+    public void fetchCourseWords(String courseId, Callback<List<Word>> callback) {
+        backend.fetchCourseWords(courseId, metrics.timed("fetchCourseWords", List::size, callback));
+    }
+
+    @Override
+    public Request<CourseWordSet> fetchCourseWordsDelta(String courseId, long sinceVersion, long sinceMembershipVersion) {
+        long startNanos = System.nanoTime();
+        Request<CourseWordSet> request = backend.fetchCourseWordsDelta(courseId, sinceVersion, sinceMembershipVersion);
+        request.onCancel(() -> metrics.recordCancel("fetchCourseWordsDelta"));
+        request.then(new Callback<CourseWordSet>() {
+            @Override
+            public void onResult(CourseWordSet result) {
+                metrics.recordCall("fetchCourseWordsDelta", startNanos, result.getWords().size(), false);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                metrics.recordCall("fetchCourseWordsDelta", startNanos, -1, true);
+            }
+        });
+        return request;
+    }
+
+    @Override
+    public Registration observeProgress(String userId, Callback<Map<String, Progress>> callback) {
+        return backend.observeProgress(userId, firstTimed("observeProgress", Map::size, callback));
+    }
+
+    @Override
+    public void getProgressRecordRefId(String userId, String courseId, Callback<String> callback) {
+        backend.getProgressRecordRefId(userId, courseId, metrics.timed("getProgressRecordRefId", null, callback));
+    }
+
+    @Override
+    public void findProgressRecordRefId(String userId, String courseId, Callback<String> callback) {
+        backend.findProgressRecordRefId(userId, courseId, metrics.timed("findProgressRecordRefId", null, callback));
+    }
+
+    @Override
+    public void updateLearnProgress(String progressRecordRefId, int progressPercentage, Callback<Void> callback) {
+        backend.updateLearnProgress(progressRecordRefId, progressPercentage, metrics.timed("updateLearnProgress", null, callback));
+    }
+
+    @Override
+    public void updateReviewProgress(String progressRecordRefId, int reviewPercentage, Callback<Void> callback) {
+        backend.updateReviewProgress(progressRecordRefId, reviewPercentage, metrics.timed("updateReviewProgress", null, callback));
+    }
+
+    @Override
+    public String newPointKey() {
+        return backend.newPointKey();
+    }
+
+    @Override
+    public void savePoints(Map<String, Point> pointsByKey, Callback<Void> callback) {
+        backend.savePoints(pointsByKey, sized("savePoints", pointsByKey.size(), callback));
+    }
+
+    @Override
+    public void fetchReviewStates(String userId, String courseId, Callback<List<ReviewState>> callback) {
+        backend.fetchReviewStates(userId, courseId, metrics.timed("fetchReviewStates", List::size, callback));
+    }
+
+    @Override
+    public void saveReviewStates(String userId, String courseId, List<ReviewState> states, Callback<Void> callback) {
+        backend.saveReviewStates(userId, courseId, states, sized("saveReviewStates", states.size(), callback));
+    }
+
+    @Override
+    public void fetchUser(String userId, Callback<User> callback) {
+        backend.fetchUser(userId, metrics.timed("fetchUser", null, callback));
+    }
+
+    @Override
+    public void saveUser(User user, Callback<Void> callback) {
+        backend.saveUser(user, metrics.timed("saveUser", null, callback));
+    }
+
+    @Override
+    public void updateUser(String userId, Map<String, Object> changes, Callback<Void> callback) {
+        backend.updateUser(userId, changes, sized("updateUser", changes.size(), callback));
+    }
+
+    @Override
+    public void fetchProfileImageUrl(String userId, int size, Callback<String> callback) {
+        backend.fetchProfileImageUrl(userId, size, metrics.timed("fetchProfileImageUrl", null, callback));
+    }
+
+    @Override
+    public void uploadProfileImage(String userId, int size, byte[] imageData, Callback<String> callback) {
+        backend.uploadProfileImage(userId, size, imageData, sized("uploadProfileImage", imageData.length, callback));
+    }
+
+    // For writes, whose size is known before the call rather than from its result
+    private <T> Callback<T> sized(String operation, long payloadSize, Callback<T> callback) {
+        return metrics.timed(operation, result -> payloadSize, callback);
+    }
+
+    private <T> Callback<T> firstTimed(String operation, Metrics.PayloadSizer<T> sizer, Callback<T> callback) {
+        long startNanos = System.nanoTime();
+        return new Callback<T>() {
+            private boolean recorded;
+
+            @Override
+            public void onResult(T result) {
+                if (!recorded) {
+                    recorded = true;
+                    metrics.recordCall(operation, startNanos, sizer.sizeOf(result), false);
+                }
+                callback.onResult(result);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (!recorded) {
+                    recorded = true;
+                    metrics.recordCall(operation, startNanos, -1, true);
+                }
+                callback.onError(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package com.app.duolingo.services;
+
+import android.os.Handler;
+import android.os.Looper;
+
+// Coalesces learn progress updates so rapid card taps turn into at most one write per window.
+// Only increases are written; call flush() when the screen goes away to write the last value.
+// Flushed values go to the WriteBehindQueue, so they reach the backend even after a crash.
+public class LearnProgressWriter {
+
+    public static final long DEFAULT_WINDOW_MS = 2000;
+
+    private final WriteBehindQueue writeBehindQueue;
+    private final long windowMs;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushRunnable = this::flush;
+
+    private String pendingRecordRefId;
+    private int pendingPercentage = -1;
+    private String writtenRecordRefId;
+    private int writtenPercentage = -1;
+
+    public LearnProgressWriter(WriteBehindQueue writeBehindQueue, long windowMs) {
+        this.writeBehindQueue = writeBehindQueue;
+        this.windowMs = windowMs;
+    }
+
+    public void submit(String progressRecordRefId, int progressPercentage) {
+        if (progressRecordRefId == null) {
+            return;
+        }
+        if (pendingRecordRefId != null && !pendingRecordRefId.equals(progressRecordRefId)) {
+            flush();
+        }
+        if (progressRecordRefId.equals(writtenRecordRefId) && progressPercentage <= writtenPercentage) {
+            return;
+        }
+        if (pendingRecordRefId != null && progressPercentage <= pendingPercentage) {
+            return;
+        }
+
+        boolean scheduled = pendingRecordRefId != null;
+        pendingRecordRefId = progressRecordRefId;
+        pendingPercentage = progressPercentage;
+        if (!scheduled) {
+            handler.postDelayed(flushRunnable, windowMs);
+        }
+    }
+
+    public void flush() {
+        handler.removeCallbacks(flushRunnable);
+        if (pendingRecordRefId == null) {
+            return;
+        }
+        writeBehindQueue.enqueueLearnProgress(pendingRecordRefId, pendingPercentage);
+        writtenRecordRefId = pendingRecordRefId;
+        writtenPercentage = pendingPercentage;
+        pendingRecordRefId = null;
+        pendingPercentage = -1;
+    }
+}
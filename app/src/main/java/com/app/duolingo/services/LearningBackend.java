@@ -0,0 +1,82 @@
+package com.app.duolingo.services;
+
+import com.app.duolingo.models.Course;
+import com.app.duolingo.models.Point;
+import com.app.duolingo.models.Progress;
+import com.app.duolingo.models.ReviewState;
+import com.app.duolingo.models.User;
+import com.app.duolingo.models.Word;
+
+import java.util.List;
+import java.util.Map;
+
+// Every remote data path of the app. DatabaseService talks to Firebase; InMemoryLearningBackend
+// keeps everything in memory so the data paths can be exercised on a plain JVM.
+// Callbacks run on the main thread, one at a time and in the order results arrive, as Firebase
+// delivers them, so callers may touch views from them. Request results complete there as well.
+public interface LearningBackend {
+
+    // Courses
+
+    Registration observeCourses(Callback<List<Course>> callback);
+
+    // Course words
+
+    void fetchCourseWords(String courseId, Callback<List<Word>> callback);
+
+    // Cancelling the request stops the download as far as the backend allows
+    Request<CourseWordSet> fetchCourseWordsDelta(String courseId, long sinceVersion, long sinceMembershipVersion);
+
+    // Progress
+
+    // The user's progress records keyed by courseId
+    Registration observeProgress(String userId, Callback<Map<String, Progress>> callback);
+
+    // Looks up the record of a user and course and creates it when there is none yet
+    void getProgressRecordRefId(String userId, String courseId, Callback<String> callback);
+
+    // Looks up only, writing nothing; null when the user never studied the course
+    void findProgressRecordRefId(String userId, String courseId, Callback<String> callback);
+
+    void updateLearnProgress(String progressRecordRefId, int progressPercentage, Callback<Void> callback);
+
+    // Replaces the value, which falls as well as rises as reviews come due
+    void updateReviewProgress(String progressRecordRefId, int reviewPercentage, Callback<Void> callback);
+
+    // Points
+
+    String newPointKey();
+
+    void savePoints(Map<String, Point> pointsByKey, Callback<Void> callback);
+
+    // Review schedules
+
+    void fetchReviewStates(String userId, String courseId, Callback<List<ReviewState>> callback);
+
+    void saveReviewStates(String userId, String courseId, List<ReviewState> states, Callback<Void> callback);
+
+    // User profiles
+
+    void fetchUser(String userId, Callback<User> callback);
+
+    void saveUser(User user, Callback<Void> callback);
+
+    // Writes only the given fields of an existing profile, keyed by User property name
+    void updateUser(String userId, Map<String, Object> changes, Callback<Void> callback);
+
+    // Profile images, stored as square variants; size is the edge length in pixels
+
+    void fetchProfileImageUrl(String userId, int size, Callback<String> callback);
+
+    void uploadProfileImage(String userId, int size, byte[] imageData, Callback<String> callback);
+
+    interface Callback<T> {
+        void onResult(T result);
+        void onError(Exception e);
+    }
+
+    // Stops a subscription started by one of the observe methods
+    interface Registration {
+        void remove();
+    }
+}
@@ -0,0 +1,22 @@
+package com.app.duolingo.services;
+
+// Process-wide LearningBackend. Firebase, with every call recorded in Metrics, unless a test or
+// benchmark installs another one before the first screen asks for it.
+public final class LearningBackends {
+
+    private static LearningBackend backend;
+
+    private LearningBackends() {
+    }
+
+    public static synchronized LearningBackend get() {
+        if (backend == null) {
+            backend = new InstrumentedLearningBackend(new DatabaseService(), Metrics.getInstance());
+        }
+        return backend;
+    }
+
+    public static synchronized void set(LearningBackend learningBackend) {
+        backend = learningBackend;
+    }
+}
@@ -0,0 +1,229 @@
+package com.app.duolingo.services;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Process-wide counters for backend calls and caches: per operation a latency histogram in
+// microseconds, a payload size histogram, and call, error and cancel counts; per cache its hits and
+// misses; and named gauges holding the last value set. Recording never blocks. toJson renders
+// everything, and startSnapshots writes that JSON to a file periodically so runs before and after
+// a change can be compared.
+public class Metrics {
+
+    private static Metrics instance;
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+    private final Map<String, Long> gauges = new ConcurrentHashMap<>();
+    private final long createdAtMs = System.currentTimeMillis();
+    private ScheduledExecutorService snapshotExecutor;
+
+    public static synchronized Metrics getInstance() {
+        if (instance == null) {
+            instance = new Metrics();
+        }
+        return instance;
+    }
+
+    // Reports one call that started at startNanos (System.nanoTime); payloadSize < 0 when unknown
+    public void recordCall(String operation, long startNanos, long payloadSize, boolean failed) {
+        Operation stats = operation(operation);
+        stats.latencyMicros.record((System.nanoTime() - startNanos) / 1000);
+        if (payloadSize >= 0) {
+            stats.payloadSizes.record(payloadSize);
+        }
+        if (failed) {
+            stats.errors.incrementAndGet();
+        }
+    }
+
+    // A call whose result nobody waited for
+    public void recordCancel(String operation) {
+        operation(operation).cancels.incrementAndGet();
+    }
+
+    public void recordCacheLookup(String cache, boolean hit) {
+        Cache stats = caches.get(cache);
+        if (stats == null) {
+            stats = caches.computeIfAbsent(cache, name -> new Cache());
+        }
+        (hit ? stats.hits : stats.misses).incrementAndGet();
+    }
+
+    public void setGauge(String name, long value) {
+        gauges.put(name, value);
+    }
+
+    // Times the call the returned callback is handed to; sizer, if any, measures a successful result
+    public <T> LearningBackend.Callback<T> timed(String operation, PayloadSizer<T> sizer, LearningBackend.Callback<T> callback) {
+        long startNanos = System.nanoTime();
+        return new LearningBackend.Callback<T>() {
+            @Override
+            public void onResult(T result) {
+                recordCall(operation, startNanos, sizer != null ? sizer.sizeOf(result) : -1, false);
+                callback.onResult(result);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                recordCall(operation, startNanos, -1, true);
+                callback.onError(e);
+            }
+        };
+    }
+
+    public Histogram getLatencyMicros(String operation) {
+        return operation(operation).latencyMicros;
+    }
+
+    public void reset() {
+        operations.clear();
+        caches.clear();
+        gauges.clear();
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"capturedAtMs\":").append(System.currentTimeMillis());
+        json.append(",\"sinceMs\":").append(createdAtMs);
+        json.append(",\"gauges\":{");
+        boolean first = true;
+        for (Map.Entry<String, Long> entry : new TreeMap<>(gauges).entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            appendString(json, entry.getKey()).append(':').append(entry.getValue());
+        }
+        json.append("},\"operations\":{");
+        first = true;
+        for (Map.Entry<String, Operation> entry : new TreeMap<>(operations).entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            Operation stats = entry.getValue();
+            appendString(json, entry.getKey()).append(":{");
+            json.append("\"calls\":").append(stats.latencyMicros.getCount());
+            json.append(",\"errors\":").append(stats.errors.get());
+            json.append(",\"cancels\":").append(stats.cancels.get());
+            json.append(",\"latencyMicros\":");
+            appendHistogram(json, stats.latencyMicros);
+            json.append(",\"payloadSize\":");
+            appendHistogram(json, stats.payloadSizes);
+            json.append('}');
+        }
+        json.append("},\"caches\":{");
+        first = true;
+        for (Map.Entry<String, Cache> entry : new TreeMap<>(caches).entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            long hits = entry.getValue().hits.get();
+            long misses = entry.getValue().misses.get();
+            appendString(json, entry.getKey()).append(":{");
+            json.append("\"hits\":").append(hits);
+            json.append(",\"misses\":").append(misses);
+            json.append(",\"hitRatio\":").append(hits + misses == 0 ? 0 : (double) hits / (hits + misses));
+            json.append('}');
+        }
+        json.append("}}");
+        return json.toString();
+    }
+
+    // Rewrites file with a fresh snapshot every periodMs until stopSnapshots; calling it again
+    // while snapshots run does nothing
+    public synchronized void startSnapshots(File file, long periodMs) {
+        if (snapshotExecutor != null) {
+            return;
+        }
+        snapshotExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Metrics-snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotExecutor.scheduleWithFixedDelay(() -> writeSnapshot(file), periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopSnapshots() {
+        // Lets a snapshot being written finish, then ends the thread
+        if (snapshotExecutor != null) {
+            snapshotExecutor.shutdown();
+            snapshotExecutor = null;
+        }
+    }
+
+    // Written next to the target and renamed over it, so readers never see half a snapshot
+    public void writeSnapshot(File file) {
+        File temporary = new File(file.getPath() + ".tmp");
+        try (OutputStream output = new FileOutputStream(temporary)) {
+            output.write(toJson().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            temporary.delete();
+            return;
+        }
+        if (!temporary.renameTo(file)) {
+            temporary.delete();
+        }
+    }
+
+    private Operation operation(String name) {
+        Operation stats = operations.get(name);
+        if (stats == null) {
+            stats = operations.computeIfAbsent(name, key -> new Operation());
+        }
+        return stats;
+    }
+
+    private static void appendHistogram(StringBuilder json, Histogram histogram) {
+        json.append("{\"count\":").append(histogram.getCount());
+        json.append(",\"mean\":").append(Math.round(histogram.getMean()));
+        json.append(",\"p50\":").append(histogram.getValueAtQuantile(0.5));
+        json.append(",\"p90\":").append(histogram.getValueAtQuantile(0.9));
+        json.append(",\"p99\":").append(histogram.getValueAtQuantile(0.99));
+        json.append(",\"max\":").append(histogram.getMax());
+        json.append('}');
+    }
+
+    private static StringBuilder appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"');
+    }
+
+    public interface PayloadSizer<T> {
+        long sizeOf(T result);
+    }
+
+    private static class Operation {
+        final Histogram latencyMicros = new Histogram();
+        final Histogram payloadSizes = new Histogram();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong cancels = new AtomicLong();
+    }
+
+    private static class Cache {
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+    }
+}
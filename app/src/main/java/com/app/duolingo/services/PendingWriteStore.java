@@ -0,0 +1,140 @@
+package com.app.duolingo.services;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Point and learn progress writes that have not been confirmed by the backend yet. Every method
+// does disk I/O, so call it off the main thread.
+public class PendingWriteStore extends SQLiteOpenHelper {
+
+    public static final String TYPE_POINT = "point";
+    public static final String TYPE_LEARN_PROGRESS = "learn_progress";
+
+    private static final String DATABASE_NAME = "pending_writes.db";
+    private static final int DATABASE_VERSION = 1;
+
+    private static PendingWriteStore instance;
+
+    public static synchronized PendingWriteStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new PendingWriteStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private PendingWriteStore(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        // target is the points push key or the progress record key
+        db.execSQL("CREATE TABLE pending_writes (id INTEGER PRIMARY KEY AUTOINCREMENT, type TEXT NOT NULL,"
+                + " target TEXT NOT NULL, user_id TEXT, course_id TEXT, value INTEGER NOT NULL)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+    }
+
+    public void addPoint(String pointKey, String userId, String courseId, int point) {
+        ContentValues values = new ContentValues();
+        values.put("type", TYPE_POINT);
+        values.put("target", pointKey);
+        values.put("user_id", userId);
+        values.put("course_id", courseId);
+        values.put("value", point);
+        getWritableDatabase().insert("pending_writes", null, values);
+    }
+
+    // Keeps a single row per progress record holding the highest value seen
+    public void raiseLearnProgress(String progressRecordRefId, int progressPercentage) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.execSQL("UPDATE pending_writes SET value = MAX(value, ?) WHERE type = ? AND target = ?",
+                    new Object[]{progressPercentage, TYPE_LEARN_PROGRESS, progressRecordRefId});
+            long updated;
+            try (Cursor cursor = db.rawQuery("SELECT changes()", null)) {
+                cursor.moveToFirst();
+                updated = cursor.getLong(0);
+            }
+            if (updated == 0) {
+                ContentValues values = new ContentValues();
+                values.put("type", TYPE_LEARN_PROGRESS);
+                values.put("target", progressRecordRefId);
+                values.put("value", progressPercentage);
+                db.insert("pending_writes", null, values);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public List<PendingWrite> readBatch(int limit) {
+        List<PendingWrite> batch = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().rawQuery(
+                "SELECT id, type, target, user_id, course_id, value FROM pending_writes ORDER BY id LIMIT " + limit, null)) {
+            while (cursor.moveToNext()) {
+                batch.add(new PendingWrite(cursor.getLong(0), cursor.getString(1), cursor.getString(2),
+                        cursor.getString(3), cursor.getString(4), cursor.getInt(5)));
+            }
+        }
+        return batch;
+    }
+
+    // Matching on value too keeps a row that was raised while its old value was in flight
+    public void remove(PendingWrite write) {
+        getWritableDatabase().delete("pending_writes", "id = ? AND value = ?",
+                new String[]{String.valueOf(write.getId()), String.valueOf(write.getValue())});
+    }
+
+    public static class PendingWrite {
+        private final long id;
+        private final String type;
+        private final String target;
+        private final String userId;
+        private final String courseId;
+        private final int value;
+
+        public PendingWrite(long id, String type, String target, String userId, String courseId, int value) {
+            this.id = id;
+            this.type = type;
+            this.target = target;
+            this.userId = userId;
+            this.courseId = courseId;
+            this.value = value;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public String getUserId() {
+            return userId;
+        }
+
+        public String getCourseId() {
+            return courseId;
+        }
+
+        public int getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.app.duolingo.services;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Turns a picked image into the fixed-size square WebP variants stored for profile pictures.
+// Decoding is downsampled to the largest variant and all decoding and encoding runs on a
+// background thread; callbacks run on the main thread.
+public class ProfileImagePipeline {
+
+    // Edge lengths in pixels, smallest first
+    public static final int[] VARIANT_SIZES = {128, 512};
+    private static final int QUALITY = 80;
+
+    private static ProfileImagePipeline instance;
+
+    private final LearningBackend backend;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public static synchronized ProfileImagePipeline getInstance() {
+        if (instance == null) {
+            instance = new ProfileImagePipeline(LearningBackends.get());
+        }
+        return instance;
+    }
+
+    private ProfileImagePipeline(LearningBackend backend) {
+        this.backend = backend;
+    }
+
+    // The smallest variant that covers a view of viewSize pixels, or the largest one
+    public static int variantFor(int viewSize) {
+        for (int size : VARIANT_SIZES) {
+            if (size >= viewSize) {
+                return size;
+            }
+        }
+        return VARIANT_SIZES[VARIANT_SIZES.length - 1];
+    }
+
+    // Encodes every variant of the image and uploads them; the result maps variant size to download URL
+    public void upload(ContentResolver resolver, Uri imageUri, String userId, final LearningBackend.Callback<Map<Integer, String>> callback) {
+        executor.execute(() -> {
+            Map<Integer, byte[]> variants;
+            try {
+                variants = encodeVariants(resolver, imageUri);
+            } catch (IOException e) {
+                mainHandler.post(() -> callback.onError(e));
+                return;
+            }
+            mainHandler.post(() -> uploadVariants(userId, variants, callback));
+        });
+    }
+
+    private void uploadVariants(String userId, Map<Integer, byte[]> variants, final LearningBackend.Callback<Map<Integer, String>> callback) {
+        Map<Integer, String> urls = new HashMap<>();
+        boolean[] failed = {false};
+        for (Map.Entry<Integer, byte[]> variant : variants.entrySet()) {
+            int size = variant.getKey();
+            backend.uploadProfileImage(userId, size, variant.getValue(), new LearningBackend.Callback<String>() {
+                @Override
+                public void onResult(String url) {
+                    urls.put(size, url);
+                    if (!failed[0] && urls.size() == variants.size()) {
+                        callback.onResult(urls);
+                    }
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    if (!failed[0]) {
+                        failed[0] = true;
+                        callback.onError(e);
+                    }
+                }
+            });
+        }
+    }
+
+    private static Map<Integer, byte[]> encodeVariants(ContentResolver resolver, Uri imageUri) throws IOException {
+        int largest = VARIANT_SIZES[VARIANT_SIZES.length - 1];
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        try (InputStream stream = resolver.openInputStream(imageUri)) {
+            BitmapFactory.decodeStream(stream, null, options);
+        }
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            throw new IOException("Not an image: " + imageUri);
+        }
+        // Largest power of two that keeps the shorter edge at least as long as the largest variant
+        int sampleSize = 1;
+        while (Math.min(options.outWidth, options.outHeight) / (sampleSize * 2) >= largest) {
+            sampleSize *= 2;
+        }
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize;
+        Bitmap decoded;
+        try (InputStream stream = resolver.openInputStream(imageUri)) {
+            decoded = BitmapFactory.decodeStream(stream, null, options);
+        }
+        if (decoded == null) {
+            throw new IOException("Could not decode " + imageUri);
+        }
+
+        // Centre square, upright; re-encoding drops the EXIF orientation the viewer would have applied
+        int side = Math.min(decoded.getWidth(), decoded.getHeight());
+        Matrix rotation = new Matrix();
+        rotation.postRotate(exifRotation(resolver, imageUri));
+        Bitmap square = Bitmap.createBitmap(decoded, (decoded.getWidth() - side) / 2, (decoded.getHeight() - side) / 2,
+                side, side, rotation, true);
+        if (square != decoded) {
+            decoded.recycle();
+        }
+
+        Map<Integer, byte[]> variants = new HashMap<>();
+        for (int size : VARIANT_SIZES) {
+            int edge = Math.min(size, side);
+            Bitmap scaled = Bitmap.createScaledBitmap(square, edge, edge, true);
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+            scaled.compress(webp(), QUALITY, encoded);
+            variants.put(size, encoded.toByteArray());
+            if (scaled != square) {
+                scaled.recycle();
+            }
+        }
+        square.recycle();
+        return variants;
+    }
+
+    private static int exifRotation(ContentResolver resolver, Uri imageUri) {
+        try (InputStream stream = resolver.openInputStream(imageUri)) {
+            int orientation = new ExifInterface(stream).getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+            switch (orientation) {
+                case ExifInterface.ORIENTATION_ROTATE_90:
+                    return 90;
+                case ExifInterface.ORIENTATION_ROTATE_180:
+                    return 180;
+                case ExifInterface.ORIENTATION_ROTATE_270:
+                    return 270;
+                default:
+                    return 0;
+            }
+        } catch (IOException e) {
+            // Not every format carries EXIF data
+            return 0;
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Bitmap.CompressFormat webp() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R ? Bitmap.CompressFormat.WEBP_LOSSY : Bitmap.CompressFormat.WEBP;
+    }
+}
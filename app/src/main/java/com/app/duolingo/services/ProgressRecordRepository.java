@@ -0,0 +1,124 @@
+package com.app.duolingo.services;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Remembers progress record keys, which never change for a user and course, so each pair is
+// looked up at most once per process. A pair found to have no record is remembered as well, until
+// getProgressRecordRefId creates one. Concurrent lookups of the same pair share one request.
+// Cancelling a lookup only detaches its caller: the key is still worth remembering. Results are
+// always posted to the main thread, whether they came from memory or from the backend.
+public class ProgressRecordRepository {
+
+    private static ProgressRecordRepository instance;
+
+    private final LearningBackend backend;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<String, String> recordRefIds = new HashMap<>();
+    private final Set<String> missingRecords = new HashSet<>();
+    private final Map<String, List<LearningBackend.Callback<String>>> inFlightFinds = new HashMap<>();
+    private final Map<String, List<LearningBackend.Callback<String>>> inFlightLookups = new HashMap<>();
+
+    public static synchronized ProgressRecordRepository getInstance() {
+        if (instance == null) {
+            instance = new ProgressRecordRepository(LearningBackends.get());
+        }
+        return instance;
+    }
+
+    private ProgressRecordRepository(LearningBackend backend) {
+        this.backend = backend;
+    }
+
+    // The record to write progress to, created if the user never studied the course
+    public Request<String> getProgressRecordRefId(String userId, String courseId) {
+        return lookup(userId, courseId, false);
+    }
+
+    // Read-only: null when there is no record yet
+    public Request<String> findProgressRecordRefId(String userId, String courseId) {
+        return lookup(userId, courseId, true);
+    }
+
+    // Warms the cache for a course about to be studied without creating anything
+    public Cancellable prefetch(String userId, String courseId) {
+        return findProgressRecordRefId(userId, courseId);
+    }
+
+    private Request<String> lookup(String userId, String courseId, boolean readOnly) {
+        String key = userId + "/" + courseId;
+        Map<String, List<LearningBackend.Callback<String>>> inFlight = readOnly ? inFlightFinds : inFlightLookups;
+        Request<String> request = new Request<>(mainHandler::post);
+        LearningBackend.Callback<String> callback = request.callback();
+        synchronized (this) {
+            String recordRefId = recordRefIds.get(key);
+            boolean knownMissing = readOnly && missingRecords.contains(key);
+            Metrics.getInstance().recordCacheLookup("progress_record_ids", recordRefId != null || knownMissing);
+            if (recordRefId != null || knownMissing) {
+                request.succeed(recordRefId);
+                return request;
+            }
+            List<LearningBackend.Callback<String>> waiters = inFlight.get(key);
+            request.onCancel(() -> leaveLookup(inFlight, key, callback));
+            if (waiters != null) {
+                waiters.add(callback);
+                return request;
+            }
+            waiters = new ArrayList<>();
+            waiters.add(callback);
+            inFlight.put(key, waiters);
+        }
+
+        LearningBackend.Callback<String> backendCallback = new LearningBackend.Callback<String>() {
+            @Override
+            public void onResult(String result) {
+                List<LearningBackend.Callback<String>> waiters;
+                synchronized (ProgressRecordRepository.this) {
+                    if (result != null) {
+                        recordRefIds.put(key, result);
+                        missingRecords.remove(key);
+                    } else if (!recordRefIds.containsKey(key)) {
+                        // A find that started before a create may come back after it
+                        missingRecords.add(key);
+                    }
+                    waiters = inFlight.remove(key);
+                }
+                for (LearningBackend.Callback<String> waiter : waiters) {
+                    waiter.onResult(result);
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                List<LearningBackend.Callback<String>> waiters;
+                synchronized (ProgressRecordRepository.this) {
+                    waiters = inFlight.remove(key);
+                }
+                for (LearningBackend.Callback<String> waiter : waiters) {
+                    waiter.onError(e);
+                }
+            }
+        };
+        if (readOnly) {
+            backend.findProgressRecordRefId(userId, courseId, backendCallback);
+        } else {
+            backend.getProgressRecordRefId(userId, courseId, backendCallback);
+        }
+        return request;
+    }
+
+    private synchronized void leaveLookup(Map<String, List<LearningBackend.Callback<String>>> inFlight, String key,
+                                          LearningBackend.Callback<String> callback) {
+        List<LearningBackend.Callback<String>> waiters = inFlight.get(key);
+        if (waiters != null) {
+            waiters.remove(callback);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.app.duolingo.services;
+
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.MediaPlayer;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+// Plays pronunciation clips from the AudioCache through a small pool of MediaPlayers that are
+// reset and reused rather than created per tap. When every player is busy the one started
+// longest ago is interrupted. A clip stays marked in use in the cache while a player holds it.
+// Main thread only; release() when the screen goes away.
+public class PronunciationPlayer {
+
+    private static final String TAG = "PronunciationPlayer";
+    private static final int POOL_SIZE = 2;
+    private static final AudioAttributes SPEECH = new AudioAttributes.Builder()
+            .setUsage(AudioAttributes.USAGE_MEDIA)
+            .setContentType(AudioAttributes.CONTENT_TYPE_SPEECH)
+            .build();
+
+    private final AudioCache audioCache;
+    private final ArrayDeque<MediaPlayer> idlePlayers = new ArrayDeque<>();
+    // Oldest first
+    private final ArrayDeque<MediaPlayer> busyPlayers = new ArrayDeque<>();
+    private final Map<MediaPlayer, File> playingFiles = new HashMap<>();
+    private String requestedUrl;
+    private boolean released;
+
+    public PronunciationPlayer(Context context) {
+        audioCache = AudioCache.getInstance(context);
+        for (int i = 0; i < POOL_SIZE; i++) {
+            idlePlayers.add(newPlayer());
+        }
+    }
+
+    public void play(String soundUrl) {
+        if (soundUrl == null || soundUrl.isEmpty()) {
+            return;
+        }
+        requestedUrl = soundUrl;
+        audioCache.fetch(soundUrl, new LearningBackend.Callback<File>() {
+            @Override
+            public void onResult(File file) {
+                // Skip clips the user has already moved past while they downloaded
+                if (!released && soundUrl.equals(requestedUrl)) {
+                    start(file);
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.w(TAG, "Could not load pronunciation " + soundUrl, e);
+            }
+        });
+    }
+
+    public void prefetch(String soundUrl) {
+        if (soundUrl != null && !soundUrl.isEmpty()) {
+            audioCache.prefetch(soundUrl);
+        }
+    }
+
+    public void release() {
+        released = true;
+        for (MediaPlayer player : idlePlayers) {
+            player.release();
+        }
+        for (MediaPlayer player : busyPlayers) {
+            player.release();
+        }
+        for (File file : playingFiles.values()) {
+            audioCache.markUnused(file);
+        }
+        playingFiles.clear();
+        idlePlayers.clear();
+        busyPlayers.clear();
+    }
+
+    private void start(File file) {
+        MediaPlayer player = idlePlayers.isEmpty() ? busyPlayers.pollFirst() : idlePlayers.pollFirst();
+        player.reset();
+        letGo(player);
+        busyPlayers.addLast(player);
+        audioCache.markInUse(file);
+        playingFiles.put(player, file);
+        player.setAudioAttributes(SPEECH);
+        try {
+            player.setDataSource(file.getPath());
+            player.prepareAsync();
+        } catch (IOException e) {
+            Log.w(TAG, "Could not play " + file, e);
+            recycle(player);
+        }
+    }
+
+    private MediaPlayer newPlayer() {
+        MediaPlayer player = new MediaPlayer();
+        player.setOnPreparedListener(MediaPlayer::start);
+        player.setOnCompletionListener(this::recycle);
+        player.setOnErrorListener((mp, what, extra) -> {
+            Log.w(TAG, "Playback error " + what + "/" + extra);
+            recycle(mp);
+            return true;
+        });
+        return player;
+    }
+
+    private void recycle(MediaPlayer player) {
+        if (busyPlayers.remove(player)) {
+            player.reset();
+            letGo(player);
+            idlePlayers.addLast(player);
+        }
+    }
+
+    private void letGo(MediaPlayer player) {
+        File file = playingFiles.remove(player);
+        if (file != null) {
+            audioCache.markUnused(file);
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.app.duolingo.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+// A single pending result that can be cancelled. Whoever produces the result calls succeed or fail;
+// consumers attach callbacks with then, which run on the request's executor and never after
+// cancel. Cancelling runs the onCancel actions, so producers can detach listeners and skip work
+// nobody waits for any more. Requests derived with map, recover, timeout or zip cancel their
+// sources when cancelled themselves.
+public class Request<T> implements Cancellable {
+
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Request-timeout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Executor callbackExecutor;
+    private final List<LearningBackend.Callback<T>> callbacks = new ArrayList<>();
+    private final List<Cancellable> cancelActions = new ArrayList<>();
+    private final List<Runnable> settleActions = new ArrayList<>();
+    private final LearningBackend.Callback<T> sink = new LearningBackend.Callback<T>() {
+        @Override
+        public void onResult(T result) {
+            succeed(result);
+        }
+
+        @Override
+        public void onError(Exception e) {
+            fail(e);
+        }
+    };
+    private boolean done;
+    private boolean cancelled;
+    private T result;
+    private Exception error;
+
+    public Request(Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    public static <T> Request<T> succeeded(T result) {
+        Request<T> request = new Request<>(Runnable::run);
+        request.succeed(result);
+        return request;
+    }
+
+    // Completes the request; false when it was already completed or cancelled
+    public boolean succeed(T result) {
+        return complete(result, null);
+    }
+
+    public boolean fail(Exception error) {
+        return complete(null, error);
+    }
+
+    // Completes this request from a callback-based call; always the same instance
+    public LearningBackend.Callback<T> callback() {
+        return sink;
+    }
+
+    @Override
+    public void cancel() {
+        List<Cancellable> actions;
+        List<Runnable> settled;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            if (done) {
+                // Nothing left to stop; only deliveries still queued are dropped
+                return;
+            }
+            callbacks.clear();
+            actions = new ArrayList<>(cancelActions);
+            cancelActions.clear();
+            settled = new ArrayList<>(settleActions);
+            settleActions.clear();
+        }
+        for (Cancellable action : actions) {
+            action.cancel();
+        }
+        for (Runnable action : settled) {
+            action.run();
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    public synchronized boolean isDone() {
+        return done;
+    }
+
+    // Runs action if the request is cancelled before it completes, at once if it already was
+    public Request<T> onCancel(Cancellable action) {
+        synchronized (this) {
+            if (done) {
+                return this;
+            }
+            if (!cancelled) {
+                cancelActions.add(action);
+                return this;
+            }
+        }
+        action.cancel();
+        return this;
+    }
+
+    // Runs action once the request can no longer call back: on the executor after the deliveries
+    // already queued when it completes, or on the cancelling thread. Lets holders such as
+    // ViewScope let go of the request and its result.
+    public Request<T> whenSettled(Runnable action) {
+        boolean wasCancelled;
+        synchronized (this) {
+            if (!done && !cancelled) {
+                settleActions.add(action);
+                return this;
+            }
+            wasCancelled = cancelled;
+        }
+        if (wasCancelled) {
+            action.run();
+        } else {
+            callbackExecutor.execute(action);
+        }
+        return this;
+    }
+
+    public Request<T> then(LearningBackend.Callback<T> callback) {
+        synchronized (this) {
+            if (cancelled) {
+                return this;
+            }
+            if (!done) {
+                callbacks.add(callback);
+                return this;
+            }
+        }
+        deliver(callback);
+        return this;
+    }
+
+    public <R> Request<R> map(Function<? super T, ? extends R> mapper) {
+        Request<R> mapped = new Request<>(callbackExecutor);
+        mapped.onCancel(this);
+        listen(new LearningBackend.Callback<T>() {
+            @Override
+            public void onResult(T value) {
+                R converted;
+                try {
+                    converted = mapper.apply(value);
+                } catch (RuntimeException e) {
+                    mapped.fail(e);
+                    return;
+                }
+                mapped.succeed(converted);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                mapped.fail(e);
+            }
+        });
+        return mapped;
+    }
+
+    // Turns a failure into a result, e.g. a fallback when an optional lookup times out
+    public Request<T> recover(Function<Exception, ? extends T> fallback) {
+        Request<T> recovered = new Request<>(callbackExecutor);
+        recovered.onCancel(this);
+        listen(new LearningBackend.Callback<T>() {
+            @Override
+            public void onResult(T value) {
+                recovered.succeed(value);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                recovered.succeed(fallback.apply(e));
+            }
+        });
+        return recovered;
+    }
+
+    // Fails with a TimeoutException and cancels this request unless it completes within timeoutMs
+    public Request<T> timeout(long timeoutMs) {
+        Request<T> limited = new Request<>(callbackExecutor);
+        // Whoever claims first settles limited; a timeout stops the source before anyone hears of it
+        AtomicBoolean settled = new AtomicBoolean();
+        ScheduledFuture<?> deadline = timer.schedule(() -> {
+            if (settled.compareAndSet(false, true)) {
+                cancel();
+                limited.fail(new TimeoutException("No result after " + timeoutMs + " ms"));
+            }
+        }, timeoutMs, TimeUnit.MILLISECONDS);
+        limited.onCancel(() -> {
+            deadline.cancel(false);
+            cancel();
+        });
+        listen(new LearningBackend.Callback<T>() {
+            @Override
+            public void onResult(T value) {
+                if (settled.compareAndSet(false, true)) {
+                    deadline.cancel(false);
+                    limited.succeed(value);
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (settled.compareAndSet(false, true)) {
+                    deadline.cancel(false);
+                    limited.fail(e);
+                }
+            }
+        });
+        return limited;
+    }
+
+    // Both results combined once both are in; the first failure fails the pair and cancels the other
+    public static <A, B, R> Request<R> zip(Request<A> first, Request<B> second, BiFunction<? super A, ? super B, ? extends R> combiner) {
+        Request<R> zipped = new Request<>(first.callbackExecutor);
+        zipped.onCancel(first);
+        zipped.onCancel(second);
+        Object[] results = new Object[2];
+        int[] remaining = {2};
+        first.listen(new LearningBackend.Callback<A>() {
+            @Override
+            public void onResult(A value) {
+                arrive(zipped, results, remaining, 0, value, combiner);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (zipped.fail(e)) {
+                    second.cancel();
+                }
+            }
+        });
+        second.listen(new LearningBackend.Callback<B>() {
+            @Override
+            public void onResult(B value) {
+                arrive(zipped, results, remaining, 1, value, combiner);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (zipped.fail(e)) {
+                    first.cancel();
+                }
+            }
+        });
+        return zipped;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A, B, R> void arrive(Request<R> zipped, Object[] results, int[] remaining, int index, Object value,
+                                         BiFunction<? super A, ? super B, ? extends R> combiner) {
+        synchronized (results) {
+            results[index] = value;
+            if (--remaining[0] > 0) {
+                return;
+            }
+        }
+        R combined;
+        try {
+            combined = combiner.apply((A) results[0], (B) results[1]);
+        } catch (RuntimeException e) {
+            zipped.fail(e);
+            return;
+        }
+        zipped.succeed(combined);
+    }
+
+    // Derived requests hear about completion on the completing thread; only then hops executors
+    private void listen(LearningBackend.Callback<T> listener) {
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            if (!done) {
+                callbacks.add(new DirectCallback<>(listener));
+                return;
+            }
+        }
+        if (error != null) {
+            listener.onError(error);
+        } else {
+            listener.onResult(result);
+        }
+    }
+
+    private boolean complete(T value, Exception failure) {
+        List<LearningBackend.Callback<T>> waiting;
+        List<Runnable> settled;
+        synchronized (this) {
+            if (done || cancelled) {
+                return false;
+            }
+            done = true;
+            result = value;
+            error = failure;
+            waiting = new ArrayList<>(callbacks);
+            callbacks.clear();
+            cancelActions.clear();
+            settled = new ArrayList<>(settleActions);
+            settleActions.clear();
+        }
+        for (LearningBackend.Callback<T> callback : waiting) {
+            if (callback instanceof DirectCallback) {
+                if (failure != null) {
+                    callback.onError(failure);
+                } else {
+                    callback.onResult(value);
+                }
+            } else {
+                deliver(callback);
+            }
+        }
+        for (Runnable action : settled) {
+            callbackExecutor.execute(action);
+        }
+        return true;
+    }
+
+    private void deliver(LearningBackend.Callback<T> callback) {
+        callbackExecutor.execute(() -> {
+            // Cancelling between completion and delivery still silences the callback
+            if (isCancelled()) {
+                return;
+            }
+            if (error != null) {
+                callback.onError(error);
+            } else {
+                callback.onResult(result);
+            }
+        });
+    }
+
+    private static final class DirectCallback<T> implements LearningBackend.Callback<T> {
+        private final LearningBackend.Callback<T> listener;
+
+        DirectCallback(LearningBackend.Callback<T> listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void onResult(T result) {
+            listener.onResult(result);
+        }
+
+        @Override
+        public void onError(Exception e) {
+            listener.onError(e);
+        }
+    }
+}
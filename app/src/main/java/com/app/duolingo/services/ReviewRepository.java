@@ -0,0 +1,188 @@
+package com.app.duolingo.services;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import com.app.duolingo.engine.ReviewScheduler;
+import com.app.duolingo.engine.Scores;
+import com.app.duolingo.models.ReviewState;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Review schedules per user and course, kept in files under reviews/ and synced to the backend in
+// batches of changed words. Schedules are only touched on one worker thread; callbacks run on the
+// main thread. A failed sync leaves the words dirty on disk, so the next flush retries them.
+// Each flush also writes the course's reviewProgress: the percentage of reviewed words not due.
+public class ReviewRepository {
+
+    private static final String TAG = "ReviewRepository";
+    private static final int SYNC_BATCH_SIZE = 500;
+
+    private static ReviewRepository instance;
+
+    private final File directory;
+    private final LearningBackend backend;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Worker thread only
+    private final Map<String, ReviewScheduler> schedulers = new HashMap<>();
+
+    public static synchronized ReviewRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new ReviewRepository(new File(context.getApplicationContext().getFilesDir(), "reviews"), LearningBackends.get());
+        }
+        return instance;
+    }
+
+    private ReviewRepository(File directory, LearningBackend backend) {
+        this.directory = directory;
+        this.backend = backend;
+    }
+
+    // Up to limit words due now, most overdue first; empty when nothing is due
+    public Request<List<String>> loadDueWordIds(String userId, String courseId, int limit) {
+        Request<List<String>> request = new Request<>(mainHandler::post);
+        worker.execute(() -> {
+            if (!request.isCancelled()) {
+                request.succeed(scheduler(userId, courseId).dueWordIds(System.currentTimeMillis(), limit));
+            }
+        });
+        return request;
+    }
+
+    public void recordReview(String userId, String courseId, String wordId, int grade) {
+        long now = System.currentTimeMillis();
+        worker.execute(() -> scheduler(userId, courseId).review(wordId, grade, now));
+    }
+
+    // Saves the schedule and sends its changed words and review progress to the backend
+    public void flush(String userId, String courseId) {
+        worker.execute(() -> {
+            ReviewScheduler scheduler = scheduler(userId, courseId);
+            save(userId, courseId, scheduler);
+            if (scheduler.size() > 0) {
+                int notDue = scheduler.size() - scheduler.dueCount(System.currentTimeMillis());
+                saveReviewProgress(userId, courseId, Scores.percent(notDue, scheduler.size()));
+            }
+            List<ReviewState> dirty = scheduler.dirtyStates();
+            for (int from = 0; from < dirty.size(); from += SYNC_BATCH_SIZE) {
+                List<ReviewState> batch = dirty.subList(from, Math.min(dirty.size(), from + SYNC_BATCH_SIZE));
+                backend.saveReviewStates(userId, courseId, batch, new LearningBackend.Callback<Void>() {
+                    @Override
+                    public void onResult(Void result) {
+                        worker.execute(() -> {
+                            scheduler.markSynced(batch);
+                            save(userId, courseId, scheduler);
+                        });
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.w(TAG, "Review sync of course " + courseId + " failed", e);
+                    }
+                });
+            }
+        });
+    }
+
+    private void saveReviewProgress(String userId, String courseId, int reviewPercentage) {
+        ProgressRecordRepository.getInstance().getProgressRecordRefId(userId, courseId).then(new LearningBackend.Callback<String>() {
+            @Override
+            public void onResult(String progressRecordRefId) {
+                backend.updateReviewProgress(progressRecordRefId, reviewPercentage, new LearningBackend.Callback<Void>() {
+                    @Override
+                    public void onResult(Void result) {
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.w(TAG, "Could not save review progress of course " + courseId, e);
+                    }
+                });
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.w(TAG, "Could not find the progress record of course " + courseId, e);
+            }
+        });
+    }
+
+    private ReviewScheduler scheduler(String userId, String courseId) {
+        String key = userId + "/" + courseId;
+        ReviewScheduler scheduler = schedulers.get(key);
+        if (scheduler != null) {
+            return scheduler;
+        }
+        AtomicFile file = file(userId, courseId);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(file.openRead()))) {
+            scheduler = ReviewScheduler.readFrom(in);
+        } catch (FileNotFoundException e) {
+            // First review of this course on this device: start empty and adopt the synced schedule
+            scheduler = new ReviewScheduler();
+            mergeRemote(userId, courseId, scheduler);
+        } catch (IOException e) {
+            Log.w(TAG, "Unreadable review schedule for course " + courseId + ", starting over", e);
+            scheduler = new ReviewScheduler();
+            mergeRemote(userId, courseId, scheduler);
+        }
+        schedulers.put(key, scheduler);
+        return scheduler;
+    }
+
+    private void mergeRemote(String userId, String courseId, ReviewScheduler scheduler) {
+        backend.fetchReviewStates(userId, courseId, new LearningBackend.Callback<List<ReviewState>>() {
+            @Override
+            public void onResult(List<ReviewState> states) {
+                worker.execute(() -> {
+                    for (ReviewState state : states) {
+                        scheduler.merge(state);
+                    }
+                    save(userId, courseId, scheduler);
+                });
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.w(TAG, "Could not fetch review schedule of course " + courseId, e);
+            }
+        });
+    }
+
+    private void save(String userId, String courseId, ReviewScheduler scheduler) {
+        AtomicFile file = file(userId, courseId);
+        FileOutputStream stream = null;
+        try {
+            stream = file.startWrite();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+            scheduler.writeTo(out);
+            out.flush();
+            file.finishWrite(stream);
+        } catch (IOException e) {
+            if (stream != null) {
+                file.failWrite(stream);
+            }
+            Log.w(TAG, "Could not save review schedule of course " + courseId, e);
+        }
+    }
+
+    private AtomicFile file(String userId, String courseId) {
+        directory.mkdirs();
+        return new AtomicFile(new File(directory, userId + "_" + courseId + ".bin"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.app.duolingo.services;
+
+import android.app.Activity;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+// Measures cold start: from process start to the first frame drawn by the activity the launch
+// router sent the user to. Only the first launch of a process counts; later launches of the
+// router are warm starts and are not recorded.
+public final class StartupTimer {
+
+    private static final String TAG = "StartupTimer";
+
+    private static boolean launched;
+    private static boolean coldStart;
+    private static long coldStartMs = -1;
+
+    private StartupTimer() {
+    }
+
+    // Called by the launch router before it forwards
+    public static synchronized void onLaunch() {
+        coldStart = !launched;
+        launched = true;
+    }
+
+    // Time to first frame of this process's cold start in ms, or -1 until it has been drawn
+    public static synchronized long getColdStartMs() {
+        return coldStartMs;
+    }
+
+    // Records the first frame of the given activity if it is the destination of a cold start
+    public static synchronized void trackFirstFrame(Activity activity) {
+        if (!coldStart) {
+            return;
+        }
+        coldStart = false;
+        final String destination = activity.getClass().getSimpleName();
+        final View decorView = activity.getWindow().getDecorView();
+        final Handler handler = new Handler(Looper.getMainLooper());
+        decorView.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+            private boolean drawn;
+
+            @Override
+            public void onDraw() {
+                if (drawn) {
+                    return;
+                }
+                drawn = true;
+                long elapsed = SystemClock.uptimeMillis() - Process.getStartUptimeMillis();
+                synchronized (StartupTimer.class) {
+                    coldStartMs = elapsed;
+                }
+                Metrics.getInstance().setGauge("cold_start_first_frame_ms", elapsed);
+                Log.i(TAG, "Cold start to first frame of " + destination + ": " + elapsed + " ms");
+                // Listeners cannot be removed while the tree is dispatching onDraw
+                handler.post(() -> decorView.getViewTreeObserver().removeOnDrawListener(this));
+            }
+        });
+    }
+}
@@ -0,0 +1,236 @@
+package com.app.duolingo.services;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.app.duolingo.models.User;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// User profiles served from memory, then from a copy on disk, and only then from the backend.
+// A cached profile older than REVALIDATE_AFTER_MS is refreshed in the background; edits write
+// only the fields that changed. Callbacks run on the main thread.
+public class UserProfileRepository {
+
+    private static final String TAG = "UserProfileRepository";
+    private static final String PREFERENCES = "user_profiles";
+    private static final long REVALIDATE_AFTER_MS = 6 * 60 * 60 * 1000L;
+
+    private static UserProfileRepository instance;
+
+    private final SharedPreferences preferences;
+    private final LearningBackend backend;
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<String, User> users = new HashMap<>();
+    private final Map<String, Long> fetchedAt = new HashMap<>();
+
+    public static synchronized UserProfileRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new UserProfileRepository(
+                    context.getApplicationContext().getSharedPreferences(PREFERENCES, Context.MODE_PRIVATE), LearningBackends.get());
+        }
+        return instance;
+    }
+
+    private UserProfileRepository(SharedPreferences preferences, LearningBackend backend) {
+        this.preferences = preferences;
+        this.backend = backend;
+    }
+
+    // Answers from cache when possible. When the cached copy is stale it is revalidated, and the
+    // callback runs a second time if the backend's copy differs.
+    public void getUser(String userId, final LearningBackend.Callback<User> callback) {
+        User cached;
+        synchronized (this) {
+            cached = users.get(userId);
+        }
+        if (cached != null) {
+            Metrics.getInstance().recordCacheLookup("user_profiles", true);
+            mainHandler.post(() -> callback.onResult(copy(cached)));
+            revalidateIfStale(userId, cached, callback);
+            return;
+        }
+
+        diskExecutor.execute(() -> {
+            User stored = readFromDisk(userId);
+            Metrics.getInstance().recordCacheLookup("user_profiles", stored != null);
+            if (stored == null) {
+                mainHandler.post(() -> fetch(userId, null, callback));
+                return;
+            }
+            mainHandler.post(() -> {
+                callback.onResult(copy(stored));
+                revalidateIfStale(userId, stored, callback);
+            });
+        });
+    }
+
+    // Writes the fields that differ from the cached profile with a single update(); with no cached
+    // profile to compare against, the whole document is saved.
+    public void updateUser(User edited, final LearningBackend.Callback<Void> callback) {
+        String userId = edited.getId();
+        User cached;
+        synchronized (this) {
+            cached = users.get(userId);
+        }
+        if (cached == null) {
+            backend.saveUser(edited, new LearningBackend.Callback<Void>() {
+                @Override
+                public void onResult(Void result) {
+                    store(edited);
+                    callback.onResult(null);
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    callback.onError(e);
+                }
+            });
+            return;
+        }
+
+        Map<String, Object> changes = changedFields(cached, edited);
+        if (changes.isEmpty()) {
+            mainHandler.post(() -> callback.onResult(null));
+            return;
+        }
+        backend.updateUser(userId, changes, new LearningBackend.Callback<Void>() {
+            @Override
+            public void onResult(Void result) {
+                store(edited);
+                callback.onResult(null);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                callback.onError(e);
+            }
+        });
+    }
+
+    // Keyed by User property names, as Firestore maps them
+    static Map<String, Object> changedFields(User before, User after) {
+        Map<String, Object> changes = new HashMap<>();
+        if (!Objects.equals(before.getName(), after.getName())) {
+            changes.put("name", after.getName());
+        }
+        if (before.getAge() != after.getAge()) {
+            changes.put("age", after.getAge());
+        }
+        if (!Objects.equals(before.getPhoneNumber(), after.getPhoneNumber())) {
+            changes.put("phoneNumber", after.getPhoneNumber());
+        }
+        if (!Objects.equals(before.getEmail(), after.getEmail())) {
+            changes.put("email", after.getEmail());
+        }
+        if (!Objects.equals(before.getLevel(), after.getLevel())) {
+            changes.put("level", after.getLevel());
+        }
+        if (!Objects.equals(before.getImageUrl(), after.getImageUrl())) {
+            changes.put("imageUrl", after.getImageUrl());
+        }
+        return changes;
+    }
+
+    private void revalidateIfStale(String userId, User cached, LearningBackend.Callback<User> callback) {
+        Long fetched;
+        synchronized (this) {
+            fetched = fetchedAt.get(userId);
+        }
+        if (fetched == null || System.currentTimeMillis() - fetched > REVALIDATE_AFTER_MS) {
+            fetch(userId, cached, callback);
+        }
+    }
+
+    private void fetch(String userId, User cached, final LearningBackend.Callback<User> callback) {
+        backend.fetchUser(userId, new LearningBackend.Callback<User>() {
+            @Override
+            public void onResult(User user) {
+                if (user == null) {
+                    if (cached == null) {
+                        callback.onResult(null);
+                    }
+                    return;
+                }
+                user.setId(userId);
+                store(user);
+                if (cached == null || !changedFields(cached, user).isEmpty()) {
+                    callback.onResult(copy(user));
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (cached == null) {
+                    callback.onError(e);
+                } else {
+                    Log.w(TAG, "Could not revalidate profile of " + userId, e);
+                }
+            }
+        });
+    }
+
+    private void store(User user) {
+        User stored = copy(user);
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            users.put(user.getId(), stored);
+            fetchedAt.put(user.getId(), now);
+        }
+        diskExecutor.execute(() -> writeToDisk(stored, now));
+    }
+
+    private User readFromDisk(String userId) {
+        String json = preferences.getString(userId, null);
+        if (json == null) {
+            return null;
+        }
+        try {
+            JSONObject object = new JSONObject(json);
+            User user = new User(userId, object.optString("name", null), object.optInt("age"),
+                    object.optString("phoneNumber", null), object.optString("email", null),
+                    object.optString("level", null), object.optString("imageUrl", null));
+            synchronized (this) {
+                users.put(userId, user);
+                fetchedAt.put(userId, object.optLong("fetchedAt"));
+            }
+            return user;
+        } catch (JSONException e) {
+            Log.w(TAG, "Discarding unreadable cached profile of " + userId, e);
+            return null;
+        }
+    }
+
+    private void writeToDisk(User user, long fetched) {
+        try {
+            JSONObject object = new JSONObject()
+                    .put("name", user.getName())
+                    .put("age", user.getAge())
+                    .put("phoneNumber", user.getPhoneNumber())
+                    .put("email", user.getEmail())
+                    .put("level", user.getLevel())
+                    .put("imageUrl", user.getImageUrl())
+                    .put("fetchedAt", fetched);
+            preferences.edit().putString(user.getId(), object.toString()).apply();
+        } catch (JSONException e) {
+            Log.w(TAG, "Could not cache profile of " + user.getId(), e);
+        }
+    }
+
+    // Screens edit what they are given, so the cache hands out copies
+    private static User copy(User user) {
+        return new User(user.getId(), user.getName(), user.getAge(), user.getPhoneNumber(),
+                user.getEmail(), user.getLevel(), user.getImageUrl());
+    }
+}
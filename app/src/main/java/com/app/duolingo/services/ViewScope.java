@@ -0,0 +1,53 @@
+package com.app.duolingo.services;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+// Ties work to a lifecycle: fragments bind requests to getViewLifecycleOwner(), so whatever is
+// still pending when the view is destroyed is cancelled instead of calling back into it.
+// A bound request is let go of once it settles, so its result does not live as long as the view.
+public final class ViewScope {
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private ViewScope() {
+    }
+
+    public static <T extends Cancellable> T bind(LifecycleOwner owner, T work) {
+        cancelOnDestroy(owner, work);
+        return work;
+    }
+
+    public static <T> Request<T> bind(LifecycleOwner owner, Request<T> request) {
+        LifecycleEventObserver observer = cancelOnDestroy(owner, request);
+        if (observer != null) {
+            // Posted again so callbacks attached right after bind are delivered while still bound
+            request.whenSettled(() -> mainHandler.post(() -> owner.getLifecycle().removeObserver(observer)));
+        }
+        return request;
+    }
+
+    // Null when the lifecycle is already over and work was cancelled at once
+    private static LifecycleEventObserver cancelOnDestroy(LifecycleOwner owner, Cancellable work) {
+        Lifecycle lifecycle = owner.getLifecycle();
+        if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            work.cancel();
+            return null;
+        }
+        LifecycleEventObserver observer = new LifecycleEventObserver() {
+            @Override
+            public void onStateChanged(LifecycleOwner source, Lifecycle.Event event) {
+                if (event == Lifecycle.Event.ON_DESTROY) {
+                    source.getLifecycle().removeObserver(this);
+                    work.cancel();
+                }
+            }
+        };
+        lifecycle.addObserver(observer);
+        return observer;
+    }
+}
@@ -0,0 +1,81 @@
+package com.app.duolingo.services;
+
+import com.app.duolingo.models.Word;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Course word lists kept in memory, bounded by the total number of cached words. The least
+// recently used course is evicted first; the most recent one is always kept, however large.
+public class WordCache {
+
+    private final int maxWords;
+    private final LinkedHashMap<String, List<Word>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private int wordCount;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public WordCache(int maxWords) {
+        this.maxWords = maxWords;
+    }
+
+    // The returned list is read-only; copy it before shuffling
+    public synchronized List<Word> get(String courseId) {
+        List<Word> words = entries.get(courseId);
+        if (words != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return words;
+    }
+
+    // Does not count as a hit or miss and does not change the eviction order
+    public synchronized boolean contains(String courseId) {
+        return entries.containsKey(courseId);
+    }
+
+    public synchronized void put(String courseId, List<Word> words) {
+        List<Word> previous = entries.put(courseId, Collections.unmodifiableList(new ArrayList<>(words)));
+        if (previous != null) {
+            wordCount -= previous.size();
+        }
+        wordCount += words.size();
+
+        Iterator<Map.Entry<String, List<Word>>> iterator = entries.entrySet().iterator();
+        while (wordCount > maxWords && entries.size() > 1) {
+            Map.Entry<String, List<Word>> eldest = iterator.next();
+            wordCount -= eldest.getValue().size();
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    public synchronized void invalidate(String courseId) {
+        List<Word> removed = entries.remove(courseId);
+        if (removed != null) {
+            wordCount -= removed.size();
+        }
+    }
+
+    public synchronized int getWordCount() {
+        return wordCount;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+}
@@ -0,0 +1,126 @@
+package com.app.duolingo.services;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.util.Log;
+
+import com.app.duolingo.models.Word;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// On-device copy of the course bundles. Every method does disk I/O, so call it off the main thread.
+// courses holds only the sync stamps of each course's word list; course names and descriptions
+// come from the live courses listener the home screen keeps.
+public class WordStore extends SQLiteOpenHelper {
+
+    private static final String TAG = "WordStore";
+    private static final String DATABASE_NAME = "words.db";
+    // 2: words are keyed by word id only
+    private static final int DATABASE_VERSION = 2;
+
+    private static WordStore instance;
+
+    public static synchronized WordStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new WordStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private WordStore(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE courses (id TEXT PRIMARY KEY, version INTEGER NOT NULL, membership_version INTEGER NOT NULL)");
+        db.execSQL("CREATE TABLE words (id TEXT PRIMARY KEY, english TEXT, meaning TEXT, pronounce TEXT, sound TEXT, updated_at INTEGER NOT NULL)");
+        db.execSQL("CREATE TABLE course_words (id TEXT PRIMARY KEY, course_id TEXT NOT NULL, word_id TEXT NOT NULL)");
+        db.execSQL("CREATE INDEX course_words_course_id ON course_words (course_id, id)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Everything here can be downloaded again
+        db.execSQL("DROP TABLE IF EXISTS course_words");
+        db.execSQL("DROP TABLE IF EXISTS words");
+        db.execSQL("DROP TABLE IF EXISTS courses");
+        onCreate(db);
+    }
+
+    // Returns null when the course has never been synced
+    public CourseWordSet readCourse(String courseId) {
+        SQLiteDatabase db = getReadableDatabase();
+        long version;
+        long membershipVersion;
+        try (Cursor cursor = db.rawQuery("SELECT version, membership_version FROM courses WHERE id = ?", new String[]{courseId})) {
+            if (!cursor.moveToFirst()) {
+                return null;
+            }
+            version = cursor.getLong(0);
+            membershipVersion = cursor.getLong(1);
+        }
+
+        LinkedHashMap<String, Word> words = new LinkedHashMap<>();
+        try (Cursor cursor = db.rawQuery("SELECT cw.id, w.id, w.english, w.meaning, w.pronounce, w.sound, w.updated_at"
+                + " FROM course_words cw JOIN words w ON w.id = cw.word_id"
+                + " WHERE cw.course_id = ? ORDER BY cw.id", new String[]{courseId})) {
+            while (cursor.moveToNext()) {
+                Word word = new Word(cursor.getString(1), cursor.getString(2), cursor.getString(3),
+                        cursor.getString(4), cursor.getString(5));
+                word.setUpdatedAt(cursor.getLong(6));
+                words.put(cursor.getString(0), word);
+            }
+        }
+        return new CourseWordSet(true, version, membershipVersion, words);
+    }
+
+    // A complete set replaces the course's word list; an incomplete one is merged into it
+    public void writeCourse(String courseId, CourseWordSet wordSet) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            if (wordSet.isComplete()) {
+                db.delete("course_words", "course_id = ?", new String[]{courseId});
+            }
+            ContentValues values = new ContentValues();
+            for (Map.Entry<String, Word> entry : wordSet.getWords().entrySet()) {
+                Word word = entry.getValue();
+                String wordId = word.getId();
+                // words.id and word_id hold word ids only; a course_words key would collide with them
+                if (wordId == null) {
+                    Log.w(TAG, "Skipping word " + entry.getKey() + " of course " + courseId + " without an id");
+                    continue;
+                }
+
+                values.clear();
+                values.put("id", wordId);
+                values.put("english", word.getEnglish());
+                values.put("meaning", word.getMeaning());
+                values.put("pronounce", word.getPronounce());
+                values.put("sound", word.getSound());
+                values.put("updated_at", word.getUpdatedAt());
+                db.insertWithOnConflict("words", null, values, SQLiteDatabase.CONFLICT_REPLACE);
+
+                values.clear();
+                values.put("id", entry.getKey());
+                values.put("course_id", courseId);
+                values.put("word_id", wordId);
+                db.insertWithOnConflict("course_words", null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+
+            values.clear();
+            values.put("id", courseId);
+            values.put("version", wordSet.getVersion());
+            values.put("membership_version", wordSet.getMembershipVersion());
+            db.insertWithOnConflict("courses", null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+}
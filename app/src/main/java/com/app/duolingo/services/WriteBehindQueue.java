@@ -0,0 +1,171 @@
+package com.app.duolingo.services;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.app.duolingo.models.Point;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Accepts point and learn progress writes immediately, persists them in PendingWriteStore and
+// drains them to the backend in batches whenever the network is available. Rows are removed only
+// after the backend confirms them, so writes survive process death and are retried on restart.
+// A failed batch is retried after a delay that doubles up to MAX_RETRY_DELAY_MS.
+public class WriteBehindQueue {
+
+    private static final String TAG = "WriteBehindQueue";
+    private static final int BATCH_SIZE = 100;
+    private static final long FIRST_RETRY_DELAY_MS = 1000;
+    private static final long MAX_RETRY_DELAY_MS = 5 * 60 * 1000;
+
+    private static WriteBehindQueue instance;
+
+    private final PendingWriteStore store;
+    private final LearningBackend backend;
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable retry = this::drain;
+    private long retryDelayMs = FIRST_RETRY_DELAY_MS;
+
+    public static synchronized WriteBehindQueue getInstance(Context context) {
+        if (instance == null) {
+            instance = new WriteBehindQueue(context.getApplicationContext(), PendingWriteStore.getInstance(context), LearningBackends.get());
+            instance.drain();
+        }
+        return instance;
+    }
+
+    private WriteBehindQueue(Context context, PendingWriteStore store, LearningBackend backend) {
+        this.store = store;
+        this.backend = backend;
+
+        ConnectivityManager connectivityManager = context.getSystemService(ConnectivityManager.class);
+        connectivityManager.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onAvailable(Network network) {
+                drain();
+            }
+        });
+    }
+
+    public void enqueuePoint(Point point) {
+        // Push keys are generated locally, so a retried batch overwrites instead of duplicating
+        String pointKey = backend.newPointKey();
+        diskExecutor.execute(() -> {
+            store.addPoint(pointKey, point.getUserId(), point.getCourseId(), point.getPoint());
+            drain();
+        });
+    }
+
+    public void enqueueLearnProgress(String progressRecordRefId, int progressPercentage) {
+        diskExecutor.execute(() -> {
+            store.raiseLearnProgress(progressRecordRefId, progressPercentage);
+            drain();
+        });
+    }
+
+    public void drain() {
+        if (draining.compareAndSet(false, true)) {
+            diskExecutor.execute(this::drainBatch);
+        }
+    }
+
+    // Runs on diskExecutor. Points go out as one multi-path update; learn progress keeps going
+    // through the max-only transaction so a queued value never lowers newer progress.
+    private void drainBatch() {
+        List<PendingWriteStore.PendingWrite> batch = store.readBatch(BATCH_SIZE);
+        if (batch.isEmpty()) {
+            draining.set(false);
+            return;
+        }
+
+        Map<String, Point> points = new LinkedHashMap<>();
+        List<PendingWriteStore.PendingWrite> pointWrites = new ArrayList<>();
+        List<PendingWriteStore.PendingWrite> progressWrites = new ArrayList<>();
+        for (PendingWriteStore.PendingWrite write : batch) {
+            if (PendingWriteStore.TYPE_POINT.equals(write.getType())) {
+                points.put(write.getTarget(), new Point(null, write.getValue(), write.getUserId(), write.getCourseId()));
+                pointWrites.add(write);
+            } else {
+                progressWrites.add(write);
+            }
+        }
+
+        AtomicInteger outstanding = new AtomicInteger(progressWrites.size() + (points.isEmpty() ? 0 : 1));
+        AtomicBoolean failed = new AtomicBoolean();
+        Runnable partDone = () -> {
+            if (outstanding.decrementAndGet() == 0) {
+                if (failed.get()) {
+                    // Also retried sooner on the next enqueue or when the network comes back
+                    draining.set(false);
+                    scheduleRetry();
+                } else {
+                    resetRetryDelay();
+                    diskExecutor.execute(this::drainBatch);
+                }
+            }
+        };
+
+        if (!points.isEmpty()) {
+            backend.savePoints(points, new LearningBackend.Callback<Void>() {
+                @Override
+                public void onResult(Void result) {
+                    diskExecutor.execute(() -> {
+                        for (PendingWriteStore.PendingWrite write : pointWrites) {
+                            store.remove(write);
+                        }
+                        partDone.run();
+                    });
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    Log.w(TAG, "Failed to save queued points", e);
+                    failed.set(true);
+                    partDone.run();
+                }
+            });
+        }
+
+        for (PendingWriteStore.PendingWrite write : progressWrites) {
+            backend.updateLearnProgress(write.getTarget(), write.getValue(), new LearningBackend.Callback<Void>() {
+                @Override
+                public void onResult(Void result) {
+                    diskExecutor.execute(() -> {
+                        store.remove(write);
+                        partDone.run();
+                    });
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    Log.w(TAG, "Failed to save queued learn progress", e);
+                    failed.set(true);
+                    partDone.run();
+                }
+            });
+        }
+    }
+
+    private synchronized void scheduleRetry() {
+        mainHandler.removeCallbacks(retry);
+        mainHandler.postDelayed(retry, retryDelayMs);
+        retryDelayMs = Math.min(retryDelayMs * 2, MAX_RETRY_DELAY_MS);
+    }
+
+    private synchronized void resetRetryDelay() {
+        retryDelayMs = FIRST_RETRY_DELAY_MS;
+    }
+}
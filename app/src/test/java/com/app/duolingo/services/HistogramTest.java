@@ -0,0 +1,61 @@
+package com.app.duolingo.services;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HistogramTest {
+
+    @Test
+    public void bucketsCoverEveryValueWithSmallRelativeError() {
+        for (long value = 0; value < 1_000_000; value += 1 + value / 50) {
+            int index = Histogram.indexOf(value);
+            long highest = Histogram.highestValueAt(index);
+            assertTrue(highest >= value);
+            assertTrue(highest - value <= Math.max(0, value / 32));
+            if (index > 0) {
+                assertTrue(Histogram.highestValueAt(index - 1) < value);
+            }
+        }
+        assertEquals(Histogram.MAX_VALUE, Histogram.highestValueAt(Histogram.indexOf(Histogram.MAX_VALUE)));
+    }
+
+    @Test
+    public void quantilesOfAUniformSpread() {
+        Histogram histogram = new Histogram();
+        for (int value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500.5, histogram.getMean(), 0.001);
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500, histogram.getValueAtQuantile(0.5), 500 / 32);
+        assertEquals(990, histogram.getValueAtQuantile(0.99), 990 / 32);
+        assertEquals(1000, histogram.getValueAtQuantile(1));
+    }
+
+    @Test
+    public void concurrentRecordingLosesNothing() throws InterruptedException {
+        Histogram histogram = new Histogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final int offset = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    histogram.record(i % 5000 + offset);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(200_000, histogram.getCount());
+        assertEquals(5002, histogram.getMax());
+    }
+}
@@ -0,0 +1,170 @@
+package com.app.duolingo.services;
+
+import com.app.duolingo.models.Point;
+import com.app.duolingo.models.Progress;
+import com.app.duolingo.models.User;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class InMemoryLearningBackendTest {
+
+    private final List<InMemoryLearningBackend> backends = new ArrayList<>();
+
+    // Results and errors in arrival order; an error is queued as the exception itself
+    private static class Queue<T> implements LearningBackend.Callback<T> {
+        final BlockingQueue<Object> arrivals = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onResult(T result) {
+            arrivals.add(result != null ? result : Queue.class);
+        }
+
+        @Override
+        public void onError(Exception e) {
+            arrivals.add(e);
+        }
+
+        Object next() throws InterruptedException {
+            Object arrival = arrivals.poll(2, TimeUnit.SECONDS);
+            assertNotNull("No callback", arrival);
+            return arrival;
+        }
+    }
+
+    private InMemoryLearningBackend backend(long latencyMs, double failureRate, long seed) {
+        InMemoryLearningBackend backend = new InMemoryLearningBackend(latencyMs, failureRate, seed, Runnable::run);
+        backends.add(backend);
+        return backend;
+    }
+
+    @After
+    public void shutDown() {
+        for (InMemoryLearningBackend backend : backends) {
+            backend.shutdown();
+        }
+    }
+
+    @Test
+    public void callbacksArriveAfterTheLatencyThroughTheCallbackExecutor() throws InterruptedException {
+        AtomicInteger handedOff = new AtomicInteger();
+        InMemoryLearningBackend backend = new InMemoryLearningBackend(50, 0, 1, runnable -> {
+            handedOff.incrementAndGet();
+            runnable.run();
+        });
+        backends.add(backend);
+        Queue<User> fetched = new Queue<>();
+        long start = System.nanoTime();
+        backend.fetchUser("nobody", fetched);
+        assertEquals(Queue.class, fetched.next());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(1, handedOff.get());
+    }
+
+    @Test
+    public void sameSeedFailsTheSameCalls() throws InterruptedException {
+        List<Boolean> first = failures(backend(0, 0.5, 7));
+        List<Boolean> second = failures(backend(0, 0.5, 7));
+        assertEquals(first, second);
+        assertTrue(first.contains(true));
+        assertTrue(first.contains(false));
+        assertFalse(failures(backend(0, 1, 7)).contains(false));
+    }
+
+    private static List<Boolean> failures(InMemoryLearningBackend backend) throws InterruptedException {
+        List<Boolean> failed = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Queue<Void> saved = new Queue<>();
+            backend.savePoints(Collections.singletonMap("p" + i, new Point(null, i, "u", "c")), saved);
+            failed.add(saved.next() instanceof Exception);
+        }
+        return failed;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void findingARecordCreatesNothing() throws InterruptedException {
+        InMemoryLearningBackend backend = backend(0, 0, 1);
+        Queue<String> found = new Queue<>();
+        backend.findProgressRecordRefId("u", "c", found);
+        assertEquals(Queue.class, found.next());
+        Queue<Map<String, Progress>> progress = new Queue<>();
+        backend.observeProgress("u", progress);
+        assertTrue(((Map<String, Progress>) progress.next()).isEmpty());
+
+        Queue<String> lookup = new Queue<>();
+        backend.getProgressRecordRefId("u", "c", lookup);
+        String progressRecordRefId = (String) lookup.next();
+        backend.findProgressRecordRefId("u", "c", found);
+        assertEquals(progressRecordRefId, found.next());
+    }
+
+    @Test
+    public void learnProgressOnlyRises() throws InterruptedException {
+        InMemoryLearningBackend backend = backend(0, 0, 1);
+        Queue<String> lookup = new Queue<>();
+        backend.getProgressRecordRefId("u", "c", lookup);
+        String progressRecordRefId = (String) lookup.next();
+
+        Queue<Void> updates = new Queue<>();
+        backend.updateLearnProgress(progressRecordRefId, 60, updates);
+        backend.updateLearnProgress(progressRecordRefId, 40, updates);
+        updates.next();
+        updates.next();
+        assertEquals(60, backend.getProgressRecord(progressRecordRefId).getLearnProgress(), 0);
+
+        backend.getProgressRecordRefId("u", "c", lookup);
+        assertEquals(progressRecordRefId, lookup.next());
+    }
+
+    @Test
+    public void reviewProgressIsReplacedEitherWay() throws InterruptedException {
+        InMemoryLearningBackend backend = backend(0, 0, 1);
+        Queue<String> lookup = new Queue<>();
+        backend.getProgressRecordRefId("u", "c", lookup);
+        String progressRecordRefId = (String) lookup.next();
+
+        Queue<Void> updates = new Queue<>();
+        backend.updateReviewProgress(progressRecordRefId, 80, updates);
+        backend.updateReviewProgress(progressRecordRefId, 30, updates);
+        updates.next();
+        updates.next();
+        assertEquals(30, backend.getProgressRecord(progressRecordRefId).getReviewProgress(), 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void progressObserversSeeChangesUntilRemoved() throws InterruptedException {
+        InMemoryLearningBackend backend = backend(0, 0, 1);
+        Queue<Map<String, Progress>> observer = new Queue<>();
+        LearningBackend.Registration registration = backend.observeProgress("u", observer);
+        assertTrue(((Map<String, Progress>) observer.next()).isEmpty());
+
+        Queue<String> lookup = new Queue<>();
+        backend.getProgressRecordRefId("u", "c", lookup);
+        String progressRecordRefId = (String) lookup.next();
+        assertEquals(0, ((Map<String, Progress>) observer.next()).get("c").getLearnProgress(), 0);
+
+        Queue<Void> updates = new Queue<>();
+        backend.updateLearnProgress(progressRecordRefId, 30, updates);
+        updates.next();
+        assertEquals(30, ((Map<String, Progress>) observer.next()).get("c").getLearnProgress(), 0);
+
+        // Observers hear of a change before its writer does, so nothing more can be on the way
+        registration.remove();
+        backend.updateLearnProgress(progressRecordRefId, 50, updates);
+        updates.next();
+        assertTrue(observer.arrivals.isEmpty());
+    }
+}
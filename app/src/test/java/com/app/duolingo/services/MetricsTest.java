@@ -0,0 +1,38 @@
+package com.app.duolingo.services;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class MetricsTest {
+
+    private static class Ignoring implements LearningBackend.Callback<String> {
+        @Override
+        public void onResult(String result) {
+        }
+
+        @Override
+        public void onError(Exception e) {
+        }
+    }
+
+    @Test
+    public void timedCallbacksCountCallsErrorsAndSizes() {
+        Metrics metrics = new Metrics();
+        metrics.timed("fetchUser", String::length, new Ignoring()).onResult("abcd");
+        metrics.timed("fetchUser", String::length, new Ignoring()).onError(new IOException("offline"));
+        metrics.recordCacheLookup("user_profiles", true);
+        metrics.recordCacheLookup("user_profiles", true);
+        metrics.recordCacheLookup("user_profiles", false);
+        metrics.recordCancel("fetchUser");
+        metrics.setGauge("cold_start_first_frame_ms", 420);
+
+        String json = metrics.toJson();
+        assertTrue(json, json.contains("\"fetchUser\":{\"calls\":2,\"errors\":1,\"cancels\":1,"));
+        assertTrue(json, json.contains("\"payloadSize\":{\"count\":1,\"mean\":4,\"p50\":4,"));
+        assertTrue(json, json.contains("\"user_profiles\":{\"hits\":2,\"misses\":1,\"hitRatio\":0.6666"));
+        assertTrue(json, json.contains("\"gauges\":{\"cold_start_first_frame_ms\":420}"));
+    }
+}
@@ -0,0 +1,147 @@
+package com.app.duolingo.services;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.*;
+
+public class RequestTest {
+
+    private static class Recorder<T> implements LearningBackend.Callback<T> {
+        final List<T> results = new ArrayList<>();
+        final List<Exception> errors = new ArrayList<>();
+        final CountDownLatch called = new CountDownLatch(1);
+
+        @Override
+        public void onResult(T result) {
+            results.add(result);
+            called.countDown();
+        }
+
+        @Override
+        public void onError(Exception e) {
+            errors.add(e);
+            called.countDown();
+        }
+    }
+
+    @Test
+    public void deliversToCallbacksAttachedBeforeAndAfterCompletion() {
+        Request<String> request = new Request<>(Runnable::run);
+        Recorder<String> early = new Recorder<>();
+        Recorder<String> late = new Recorder<>();
+        request.then(early);
+        assertTrue(request.succeed("done"));
+        assertFalse(request.fail(new Exception("too late")));
+        request.then(late);
+        assertEquals(Collections.singletonList("done"), early.results);
+        assertEquals(Collections.singletonList("done"), late.results);
+    }
+
+    @Test
+    public void cancelRunsCancelActionsAndSilencesCallbacks() {
+        Request<String> request = new Request<>(Runnable::run);
+        Recorder<String> recorder = new Recorder<>();
+        int[] detached = {0};
+        request.then(recorder).onCancel(() -> detached[0]++);
+        request.cancel();
+        request.cancel();
+        assertFalse(request.succeed("ignored"));
+        assertEquals(1, detached[0]);
+        assertTrue(recorder.results.isEmpty());
+
+        request.onCancel(() -> detached[0]++);
+        assertEquals(2, detached[0]);
+    }
+
+    @Test
+    public void cancellingADerivedRequestCancelsItsSources() {
+        Request<Integer> first = new Request<>(Runnable::run);
+        Request<Integer> second = new Request<>(Runnable::run);
+        Request<Integer> sum = Request.zip(first, second.map(value -> value * 10), (a, b) -> a + b);
+        sum.cancel();
+        assertTrue(first.isCancelled());
+        assertTrue(second.isCancelled());
+    }
+
+    @Test
+    public void zipCombinesBothResults() {
+        Request<Integer> first = new Request<>(Runnable::run);
+        Request<String> second = new Request<>(Runnable::run);
+        Recorder<String> recorder = new Recorder<>();
+        Request.zip(first, second, (a, b) -> b + a).then(recorder);
+        second.succeed("x");
+        assertTrue(recorder.results.isEmpty());
+        first.succeed(3);
+        assertEquals(Collections.singletonList("x3"), recorder.results);
+    }
+
+    @Test
+    public void zipFailsFastAndCancelsTheOtherSide() {
+        Request<Integer> first = new Request<>(Runnable::run);
+        Request<Integer> second = new Request<>(Runnable::run);
+        Recorder<Integer> recorder = new Recorder<>();
+        Request.zip(first, second, Integer::sum).then(recorder);
+        first.fail(new IllegalStateException("offline"));
+        assertEquals(1, recorder.errors.size());
+        assertTrue(second.isCancelled());
+    }
+
+    @Test
+    public void timeoutFailsAndCancelsTheSource() throws InterruptedException {
+        Request<String> slow = new Request<>(Runnable::run);
+        Recorder<String> recorder = new Recorder<>();
+        slow.timeout(20).then(recorder);
+        assertTrue(recorder.called.await(2, TimeUnit.SECONDS));
+        assertTrue(recorder.errors.get(0) instanceof TimeoutException);
+        assertTrue(slow.isCancelled());
+    }
+
+    @Test
+    public void recoverReplacesAFailure() {
+        Request<List<String>> lookup = new Request<>(Runnable::run);
+        Recorder<List<String>> recorder = new Recorder<>();
+        lookup.timeout(10_000).recover(e -> Collections.<String>emptyList()).then(recorder);
+        lookup.fail(new Exception("unavailable"));
+        assertEquals(1, recorder.results.size());
+        assertTrue(recorder.results.get(0).isEmpty());
+    }
+
+    @Test
+    public void settleActionsRunAfterQueuedDeliveriesOrOnCancel() {
+        List<Runnable> executor = new ArrayList<>();
+        List<String> order = new ArrayList<>();
+        Request<String> request = new Request<>(executor::add);
+        request.then(new LearningBackend.Callback<String>() {
+            @Override
+            public void onResult(String result) {
+                order.add("delivered");
+            }
+
+            @Override
+            public void onError(Exception e) {
+            }
+        });
+        request.whenSettled(() -> order.add("settled"));
+        request.succeed("done");
+        assertTrue(order.isEmpty());
+        for (Runnable runnable : executor) {
+            runnable.run();
+        }
+        assertEquals(Arrays.asList("delivered", "settled"), order);
+
+        Request<String> cancelled = new Request<>(executor::add);
+        List<String> settled = new ArrayList<>();
+        cancelled.whenSettled(() -> settled.add("first"));
+        cancelled.cancel();
+        cancelled.whenSettled(() -> settled.add("second"));
+        assertEquals(Arrays.asList("first", "second"), settled);
+    }
+}
@@ -0,0 +1,79 @@
+package com.app.duolingo.benchmark;
+
+import com.app.duolingo.engine.AnswerMatcher;
+import com.app.duolingo.engine.TextFolder;
+import com.app.duolingo.engine.WordSolveSession;
+import com.app.duolingo.models.Word;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+// Answer normalization and matching. Building a matcher folds every key of the deck; checks and
+// folds cycle through the deck and should allocate nothing once the folder has warmed up.
+@State(Scope.Benchmark)
+public class AnswerMatchingBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int deckSize;
+
+    private List<Word> words;
+    private List<CharSequence> answers;
+    private AnswerMatcher matcher;
+    private TextFolder folder;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        words = Decks.words(deckSize);
+        answers = Decks.answers(words);
+        matcher = new AnswerMatcher(words);
+        folder = new TextFolder();
+    }
+
+    @Benchmark
+    public AnswerMatcher buildMatcher() {
+        return new AnswerMatcher(words);
+    }
+
+    // One typo allowed, as WordSolveSession does for longer words
+    @Benchmark
+    public int checkAnswer() {
+        int index = nextIndex();
+        return matcher.distance(index, answers.get(index), WordSolveSession.MAX_TYPOS);
+    }
+
+    @Benchmark
+    public boolean matchAnswer() {
+        int index = nextIndex();
+        return matcher.matches(index, answers.get(index));
+    }
+
+    // Baseline: the lowercase-and-equals check WordSolveFragment used before the matcher
+    @Benchmark
+    public boolean lowercaseEquals() {
+        int index = nextIndex();
+        return answers.get(index).toString().toLowerCase().equals(words.get(index).getEnglish().toLowerCase());
+    }
+
+    @Benchmark
+    public int foldAnswer() {
+        return folder.fold(answers.get(nextIndex()));
+    }
+
+    @Benchmark
+    public String normalizeAnswer() {
+        return TextFolder.normalize(answers.get(nextIndex()));
+    }
+
+    private int nextIndex() {
+        if (next == words.size()) {
+            next = 0;
+        }
+        return next++;
+    }
+}
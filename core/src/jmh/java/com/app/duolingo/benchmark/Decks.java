@@ -0,0 +1,47 @@
+package com.app.duolingo.benchmark;
+
+import com.app.duolingo.models.Word;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+// Seeded fixtures shared by the benchmarks, so every run and every parameter sees the same data
+final class Decks {
+
+    static final long SEED = 42;
+
+    private Decks() {
+    }
+
+    // A realistic deck: a quarter of the words share a handful of common meanings, and a few have
+    // accents or multi-word answers for the folder to work on
+    static List<Word> words(int size) {
+        Random random = new Random(SEED);
+        List<Word> words = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String meaning = random.nextInt(4) == 0 ? "common" + random.nextInt(8) : "meaning" + i;
+            String english = "word" + Integer.toString(i, 36);
+            if (random.nextInt(8) == 0) {
+                english = "caf\u00e9 " + english;
+            } else if (random.nextBoolean()) {
+                english = english + " phrase";
+            }
+            words.add(new Word("w" + i, english, meaning, "", ""));
+        }
+        return words;
+    }
+
+    // What learners type for words: mostly right but differently cased, some with a typo
+    static List<CharSequence> answers(List<Word> words) {
+        Random random = new Random(SEED);
+        List<CharSequence> answers = new ArrayList<>(words.size());
+        for (Word word : words) {
+            String english = word.getEnglish();
+            // An EditText hands over an Editable; a StringBuilder is the closest plain CharSequence
+            answers.add(new StringBuilder(random.nextInt(4) == 0 ? english + "x" : english.toUpperCase(Locale.ROOT)));
+        }
+        return answers;
+    }
+}
@@ -0,0 +1,107 @@
+package com.app.duolingo.benchmark;
+
+import com.app.duolingo.engine.QuizQuestionDeck;
+import com.app.duolingo.engine.QuizQuestionGenerator;
+import com.app.duolingo.models.QuizQuestion;
+import com.app.duolingo.models.Word;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+// Quiz deck construction and distractor generation. The deck should hand out its first question
+// in constant time whatever the deck size; a review session pays for the meaning index once.
+@State(Scope.Benchmark)
+public class QuizDeckBenchmark {
+
+    // QuizFragment's review session length
+    private static final int SESSION_QUESTIONS = 20;
+    // QuizQuestionDeck's probe budget
+    private static final int MAX_PROBES = 32;
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int deckSize;
+
+    private List<Word> words;
+    private QuizQuestionGenerator generator;
+    private Random random;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        words = Decks.words(deckSize);
+        random = new Random(Decks.SEED);
+        generator = new QuizQuestionGenerator(words, random);
+    }
+
+    // The deck reorders its list, so each one gets a copy, as from the word repository
+    @Benchmark
+    public QuizQuestion deckFirstQuestion() {
+        QuizQuestionDeck deck = new QuizQuestionDeck(new ArrayList<>(words), random);
+        try {
+            return deck.get(0);
+        } finally {
+            deck.close();
+        }
+    }
+
+    @Benchmark
+    public void deckReviewSession(Blackhole blackhole) {
+        QuizQuestionDeck deck = new QuizQuestionDeck(new ArrayList<>(words), random);
+        try {
+            int questions = Math.min(SESSION_QUESTIONS, deck.size());
+            for (int i = 0; i < questions; i++) {
+                blackhole.consume(deck.get(i));
+            }
+        } finally {
+            deck.close();
+        }
+    }
+
+    @Benchmark
+    public QuizQuestionGenerator generatorIndex() {
+        return new QuizQuestionGenerator(words, random);
+    }
+
+    @Benchmark
+    public List<String> generateOptions() {
+        return generator.generateOptions(nextWord());
+    }
+
+    // The index-free path the deck takes for its first questions
+    @Benchmark
+    public QuizQuestion probeOptions() {
+        return QuizQuestionGenerator.probe(words, nextWord(), random, MAX_PROBES);
+    }
+
+    // Baseline: QuizFragment's rejection loop before the generator, slow on shared meanings
+    @Benchmark
+    public List<String> rejectionLoopOptions() {
+        Word correctWord = nextWord();
+        List<String> options = new ArrayList<>();
+        options.add(correctWord.getMeaning());
+        while (options.size() < QuizQuestionGenerator.OPTION_COUNT && options.size() < generator.getDistinctMeaningCount()) {
+            Word optionWord = words.get(random.nextInt(words.size()));
+            if (!optionWord.getMeaning().equals(correctWord.getMeaning()) && !options.contains(optionWord.getMeaning())) {
+                options.add(optionWord.getMeaning());
+            }
+        }
+        Collections.shuffle(options, random);
+        return options;
+    }
+
+    private Word nextWord() {
+        if (next == words.size()) {
+            next = 0;
+        }
+        return words.get(next++);
+    }
+}
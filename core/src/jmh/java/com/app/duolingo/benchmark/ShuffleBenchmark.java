@@ -0,0 +1,47 @@
+package com.app.duolingo.benchmark;
+
+import com.app.duolingo.engine.FlashcardSession;
+import com.app.duolingo.models.Word;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+// Deck shuffling: the flashcard deck copies and shuffles the whole course up front, where the quiz
+// deck shuffles one position at a time as it goes (see QuizDeckBenchmark).
+@State(Scope.Benchmark)
+public class ShuffleBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int deckSize;
+
+    private List<Word> words;
+    private List<Word> working;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        words = Decks.words(deckSize);
+        working = new ArrayList<>(words);
+        random = new Random(Decks.SEED);
+    }
+
+    @Benchmark
+    public FlashcardSession flashcardSession() {
+        return new FlashcardSession(words, random);
+    }
+
+    // The in-place shuffle alone, without the copy
+    @Benchmark
+    public List<Word> shuffleInPlace() {
+        Collections.shuffle(working, random);
+        return working;
+    }
+}
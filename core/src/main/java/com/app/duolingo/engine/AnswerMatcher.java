@@ -0,0 +1,97 @@
+package com.app.duolingo.engine;
+
+import com.app.duolingo.models.Word;
+
+import java.util.List;
+
+// Compares typed answers with the English form of each word of a deck, both folded by TextFolder.
+// Keys are folded once per deck; checks reuse the matcher's buffers and, once every character
+// typed has been folded before, allocate nothing. Not thread-safe.
+public class AnswerMatcher {
+
+    private final char[][] keys;
+    private final TextFolder folder = new TextFolder();
+    private int[] previousRow = new int[33];
+    private int[] currentRow = new int[33];
+
+    public AnswerMatcher(List<Word> words) {
+        keys = new char[words.size()][];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = TextFolder.normalize(words.get(i).getEnglish()).toCharArray();
+        }
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    // Length of the folded key of word wordIndex
+    public int keyLength(int wordIndex) {
+        return keys[wordIndex].length;
+    }
+
+    public boolean matches(int wordIndex, CharSequence typed) {
+        return distance(wordIndex, typed, 0) == 0;
+    }
+
+    // Edit distance between the folded input and the key of word wordIndex, or maxEdits + 1 as soon
+    // as it is known to exceed maxEdits. Only a band of 2 * maxEdits + 1 cells per row is computed.
+    public int distance(int wordIndex, CharSequence typed, int maxEdits) {
+        int inputLength = folder.fold(typed);
+        char[] input = folder.chars();
+        char[] key = keys[wordIndex];
+        if (Math.abs(key.length - inputLength) > maxEdits) {
+            return maxEdits + 1;
+        }
+        // Only the middle that differs needs the table
+        int prefix = 0;
+        int shorter = Math.min(key.length, inputLength);
+        while (prefix < shorter && input[prefix] == key[prefix]) {
+            prefix++;
+        }
+        if (prefix == shorter && key.length == inputLength) {
+            return 0;
+        }
+        if (maxEdits == 0) {
+            return 1;
+        }
+        int suffix = 0;
+        while (suffix < shorter - prefix && input[inputLength - 1 - suffix] == key[key.length - 1 - suffix]) {
+            suffix++;
+        }
+        int rows = inputLength - prefix - suffix;
+        int columns = key.length - prefix - suffix;
+
+        if (previousRow.length <= columns) {
+            previousRow = new int[columns + 1];
+            currentRow = new int[columns + 1];
+        }
+        int outside = maxEdits + 1;
+        for (int j = 0; j <= columns; j++) {
+            previousRow[j] = Math.min(j, outside);
+        }
+        for (int i = 1; i <= rows; i++) {
+            int from = Math.max(1, i - maxEdits);
+            int to = Math.min(columns, i + maxEdits);
+            currentRow[from - 1] = from == 1 ? Math.min(i, outside) : outside;
+            int rowMinimum = currentRow[from - 1];
+            char typedChar = input[prefix + i - 1];
+            for (int j = from; j <= to; j++) {
+                int cost = typedChar == key[prefix + j - 1] ? 0 : 1;
+                int cell = Math.min(previousRow[j - 1] + cost, Math.min(previousRow[j], currentRow[j - 1]) + 1);
+                currentRow[j] = Math.min(cell, outside);
+                rowMinimum = Math.min(rowMinimum, currentRow[j]);
+            }
+            if (to < columns) {
+                currentRow[to + 1] = outside;
+            }
+            if (rowMinimum > maxEdits) {
+                return outside;
+            }
+            int[] row = previousRow;
+            previousRow = currentRow;
+            currentRow = row;
+        }
+        return previousRow[columns];
+    }
+}
@@ -0,0 +1,45 @@
+package com.app.duolingo.engine;
+
+import com.app.duolingo.models.Word;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+// A shuffled flashcard deck and the learn progress that moving through it earns. Positions are
+// owned by the pager showing the cards, so the methods take the current one.
+public class FlashcardSession {
+
+    private final List<Word> cards;
+
+    public FlashcardSession(List<Word> words, Random random) {
+        cards = new ArrayList<>(words);
+        Collections.shuffle(cards, random);
+    }
+
+    public List<Word> getCards() {
+        return cards;
+    }
+
+    public int size() {
+        return cards.size();
+    }
+
+    // The card after position, wrapping to the first after the last
+    public int nextPosition(int position) {
+        return position < cards.size() - 1 ? position + 1 : 0;
+    }
+
+    public int previousPosition(int position) {
+        return position > 0 ? position - 1 : position;
+    }
+
+    // Learn progress reached by moving on from position: the share of cards seen, 100 after the last
+    public int progressAfter(int position) {
+        if (position >= cards.size() - 1) {
+            return 100;
+        }
+        return Scores.percent(position + 1, cards.size());
+    }
+}
@@ -0,0 +1,156 @@
+package com.app.duolingo.engine;
+
+import com.app.duolingo.models.Word;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Prefix trie over the folded English forms of a deck, for feedback while the learner types.
+// Nodes live in parallel arrays (label, first child, next sibling, word) rather than objects;
+// siblings are kept in label order, so completions come out alphabetically. Lookups fold the
+// typed text with TextFolder and cost O(length); status() allocates nothing. Not thread-safe.
+public class PrefixTrie {
+
+    // No word of the deck starts with the typed text
+    public static final int OFF_TRACK = 0;
+    // Some word starts with the typed text
+    public static final int ON_TRACK = 1;
+    // The typed text is a whole word, possibly also the start of longer ones
+    public static final int COMPLETE = 2;
+
+    private static final int NONE = -1;
+
+    private char[] labels = new char[64];
+    private int[] firstChild = new int[64];
+    private int[] nextSibling = new int[64];
+    // Index of the first word whose folded form ends at the node, or NONE
+    private int[] wordIndex = new int[64];
+    private int nodeCount;
+
+    private final List<Word> words;
+    private final TextFolder folder = new TextFolder();
+    private int[] stack = new int[32];
+
+    public PrefixTrie(List<Word> words) {
+        this.words = words;
+        newNode('\0');
+        for (int i = 0; i < words.size(); i++) {
+            insert(TextFolder.normalize(words.get(i).getEnglish()), i);
+        }
+        labels = Arrays.copyOf(labels, nodeCount);
+        firstChild = Arrays.copyOf(firstChild, nodeCount);
+        nextSibling = Arrays.copyOf(nextSibling, nodeCount);
+        wordIndex = Arrays.copyOf(wordIndex, nodeCount);
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public int status(CharSequence typed) {
+        int node = find(typed);
+        if (node == NONE) {
+            return OFF_TRACK;
+        }
+        return wordIndex[node] != NONE ? COMPLETE : ON_TRACK;
+    }
+
+    // Up to limit English forms starting with the typed text, in alphabetical order of their folded forms
+    public List<String> completions(CharSequence typed, int limit) {
+        List<String> result = new ArrayList<>(Math.min(limit, 16));
+        int node = find(typed);
+        if (node == NONE || limit <= 0) {
+            return result;
+        }
+        // Pre-order walk of the subtree, stopping after limit words
+        int depth = 0;
+        stack[depth++] = node;
+        while (depth > 0 && result.size() < limit) {
+            int current = stack[--depth];
+            if (current != node && nextSibling[current] != NONE) {
+                depth = push(depth, nextSibling[current]);
+            }
+            if (wordIndex[current] != NONE) {
+                result.add(words.get(wordIndex[current]).getEnglish());
+            }
+            if (firstChild[current] != NONE) {
+                depth = push(depth, firstChild[current]);
+            }
+        }
+        return result;
+    }
+
+    private int find(CharSequence typed) {
+        int length = folder.fold(typed);
+        char[] chars = folder.chars();
+        int node = 0;
+        for (int i = 0; i < length && node != NONE; i++) {
+            node = child(node, chars[i]);
+        }
+        return node;
+    }
+
+    private int child(int node, char label) {
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            if (labels[child] == label) {
+                return child;
+            }
+            if (labels[child] > label) {
+                break;
+            }
+        }
+        return NONE;
+    }
+
+    private void insert(String key, int index) {
+        int node = 0;
+        for (int i = 0; i < key.length(); i++) {
+            char label = key.charAt(i);
+            int previous = NONE;
+            int child = firstChild[node];
+            while (child != NONE && labels[child] < label) {
+                previous = child;
+                child = nextSibling[child];
+            }
+            if (child == NONE || labels[child] != label) {
+                int created = newNode(label);
+                nextSibling[created] = child;
+                if (previous == NONE) {
+                    firstChild[node] = created;
+                } else {
+                    nextSibling[previous] = created;
+                }
+                child = created;
+            }
+            node = child;
+        }
+        if (wordIndex[node] == NONE) {
+            wordIndex[node] = index;
+        }
+    }
+
+    private int newNode(char label) {
+        if (nodeCount == labels.length) {
+            int capacity = nodeCount * 2;
+            labels = Arrays.copyOf(labels, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            wordIndex = Arrays.copyOf(wordIndex, capacity);
+        }
+        int node = nodeCount++;
+        labels[node] = label;
+        firstChild[node] = NONE;
+        nextSibling[node] = NONE;
+        wordIndex[node] = NONE;
+        return node;
+    }
+
+    private int push(int depth, int node) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth] = node;
+        return depth + 1;
+    }
+}
@@ -0,0 +1,170 @@
+package com.app.duolingo.engine;
+
+import com.app.duolingo.models.QuizQuestion;
+import com.app.duolingo.models.Word;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Quiz questions built on demand. The deck is shuffled lazily one position at a time; the first
+// question is probed for distractors on the constructing thread, in constant time whatever the
+// deck size, and the next LOOKAHEAD questions are built ahead on a worker thread, which also
+// builds the meaning index of QuizQuestionGenerator after them. The owning thread never waits
+// for the worker: poll returns a question only once it is built, and get with a listener hands
+// it over on callbackExecutor when it is.
+// Takes ownership of the question list and reorders it. Everything but the listeners belongs to
+// the thread that built the deck.
+public class QuizQuestionDeck {
+
+    public static final int LOOKAHEAD = 3;
+    private static final int MAX_PROBES = 32;
+
+    private final List<Word> words;
+    private final List<Word> optionWords;
+    private final Random random;
+    private final Executor callbackExecutor;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "QuizQuestionDeck");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Integer, CompletableFuture<QuizQuestion>> scheduled = new HashMap<>();
+    private volatile boolean closed;
+
+    // Worker thread only, once the constructor has returned
+    private QuizQuestionGenerator generator;
+    private int shuffledCount;
+
+    public QuizQuestionDeck(List<Word> words, Random random) {
+        this(words, words, random);
+    }
+
+    // Asks only the given words, e.g. the ones due for review, drawing distractors from optionWords
+    public QuizQuestionDeck(List<Word> words, List<Word> optionWords, Random random) {
+        this(words, optionWords, random, Runnable::run);
+    }
+
+    // Listeners of questions still being built run on callbackExecutor, e.g. the main thread
+    public QuizQuestionDeck(List<Word> words, List<Word> optionWords, Random random, Executor callbackExecutor) {
+        this.words = words;
+        this.optionWords = optionWords;
+        this.random = random;
+        this.callbackExecutor = callbackExecutor;
+        if (!words.isEmpty()) {
+            // On heavily shared meanings probing fails and question 0 waits for the index instead
+            QuizQuestion first = QuizQuestionGenerator.probe(optionWords, shuffleTo(0), random, MAX_PROBES);
+            if (first != null) {
+                scheduled.put(0, CompletableFuture.completedFuture(first));
+            }
+        }
+        schedule(0);
+    }
+
+    public int size() {
+        return words.size();
+    }
+
+    // Question index if it is built, otherwise null; either way the questions after it are started
+    public QuizQuestion poll(int index) {
+        CompletableFuture<QuizQuestion> question = scheduledAt(index);
+        if (!question.isDone()) {
+            return null;
+        }
+        scheduled.remove(index);
+        return result(index, question);
+    }
+
+    // Hands question index to listener: at once if it is built, otherwise on callbackExecutor
+    // when it is, unless the deck has been closed by then
+    public void get(int index, Listener listener) {
+        CompletableFuture<QuizQuestion> question = scheduledAt(index);
+        scheduled.remove(index);
+        if (question.isDone()) {
+            listener.onQuestion(index, result(index, question));
+            return;
+        }
+        question.whenCompleteAsync((built, error) -> {
+            if (!closed) {
+                listener.onQuestion(index, result(index, question));
+            }
+        }, callbackExecutor);
+    }
+
+    // Waits for question index; for tests and benchmarks, never a UI thread
+    public QuizQuestion get(int index) {
+        CompletableFuture<QuizQuestion> question = scheduledAt(index);
+        scheduled.remove(index);
+        return result(index, question);
+    }
+
+    // The word asked by question index, once that question has been handed out
+    public Word getWord(int index) {
+        return words.get(index);
+    }
+
+    public void close() {
+        closed = true;
+        worker.shutdownNow();
+    }
+
+    private CompletableFuture<QuizQuestion> scheduledAt(int index) {
+        if (index < 0 || index >= words.size()) {
+            throw new IndexOutOfBoundsException("Question " + index + " of " + words.size());
+        }
+        schedule(index);
+        return scheduled.get(index);
+    }
+
+    private static QuizQuestion result(int index, CompletableFuture<QuizQuestion> question) {
+        try {
+            return question.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Failed to build question " + index, e.getCause());
+        }
+    }
+
+    private void schedule(int from) {
+        int to = Math.min(words.size(), from + LOOKAHEAD + 1);
+        for (int i = from; i < to; i++) {
+            if (!scheduled.containsKey(i)) {
+                final int index = i;
+                scheduled.put(index, CompletableFuture.supplyAsync(() -> build(index), worker));
+            }
+        }
+    }
+
+    private QuizQuestion build(int index) {
+        Word word = shuffleTo(index);
+        if (generator == null && index <= LOOKAHEAD) {
+            QuizQuestion question = QuizQuestionGenerator.probe(optionWords, word, random, MAX_PROBES);
+            if (question != null) {
+                return question;
+            }
+        }
+        if (generator == null) {
+            generator = new QuizQuestionGenerator(optionWords, random);
+        }
+        return generator.generate(word);
+    }
+
+    // Fisher-Yates step by step: positions before shuffledCount are final
+    private Word shuffleTo(int index) {
+        while (shuffledCount <= index) {
+            Collections.swap(words, shuffledCount, shuffledCount + random.nextInt(words.size() - shuffledCount));
+            shuffledCount++;
+        }
+        return words.get(index);
+    }
+
+    public interface Listener {
+        void onQuestion(int index, QuizQuestion question);
+    }
+}
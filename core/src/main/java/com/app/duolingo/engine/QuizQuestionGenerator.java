@@ -0,0 +1,109 @@
+package com.app.duolingo.engine;
+
+import com.app.duolingo.models.QuizQuestion;
+import com.app.duolingo.models.Word;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+// Builds multiple choice questions for a deck. Distinct meanings are indexed once per deck and
+// distractors are drawn with a partial Fisher-Yates shuffle, so each question costs O(options)
+// however large the deck or however many words share a meaning. Decks with fewer than
+// OPTION_COUNT distinct meanings get fewer options. Words without a meaning are never offered as
+// distractors. Not thread-safe.
+public class QuizQuestionGenerator {
+
+    public static final int OPTION_COUNT = 4;
+
+    private final String[] meanings;
+    private final Map<String, Integer> meaningIds;
+    // slots is a permutation of meaning ids and positions its inverse; sampling only swaps slots,
+    // so the permutation never has to be reset between questions
+    private final int[] slots;
+    private final int[] positions;
+    private final Random random;
+
+    public QuizQuestionGenerator(List<Word> words, Random random) {
+        this.random = random;
+        meaningIds = new HashMap<>();
+        List<String> distinctMeanings = new ArrayList<>();
+        for (Word word : words) {
+            String meaning = word.getMeaning();
+            if (meaning != null && !meaningIds.containsKey(meaning)) {
+                meaningIds.put(meaning, distinctMeanings.size());
+                distinctMeanings.add(meaning);
+            }
+        }
+        meanings = distinctMeanings.toArray(new String[0]);
+        slots = new int[meanings.length];
+        positions = new int[meanings.length];
+        for (int i = 0; i < meanings.length; i++) {
+            slots[i] = i;
+            positions[i] = i;
+        }
+    }
+
+    public int getDistinctMeaningCount() {
+        return meanings.length;
+    }
+
+    public QuizQuestion generate(Word word) {
+        return question(word, generateOptions(word));
+    }
+
+    // Draws distractors straight from the deck without an index: O(1) expected when meanings are
+    // varied, but gives up after maxProbes draws and returns null (e.g. on heavily shared meanings)
+    public static QuizQuestion probe(List<Word> words, Word word, Random random, int maxProbes) {
+        String correctMeaning = word.getMeaning();
+        List<String> options = new ArrayList<>(OPTION_COUNT);
+        for (int probe = 0; probe < maxProbes && options.size() < OPTION_COUNT - 1; probe++) {
+            String meaning = words.get(random.nextInt(words.size())).getMeaning();
+            if (meaning != null && !Objects.equals(meaning, correctMeaning) && !options.contains(meaning)) {
+                options.add(meaning);
+            }
+        }
+        if (options.size() < OPTION_COUNT - 1) {
+            return null;
+        }
+        options.add(random.nextInt(OPTION_COUNT), correctMeaning);
+        return question(word, options);
+    }
+
+    private static QuizQuestion question(Word word, List<String> options) {
+        return new QuizQuestion("What is the meaning of " + word.getEnglish(), options, word.getMeaning());
+    }
+
+    // The correct meaning plus up to OPTION_COUNT - 1 distinct distractors, in random order
+    public List<String> generateOptions(Word correctWord) {
+        String correctMeaning = correctWord.getMeaning();
+        Integer correctId = meaningIds.get(correctMeaning);
+        int candidates = meanings.length;
+        if (correctId != null) {
+            // Park the correct meaning in the last slot and draw only from the slots before it
+            swap(positions[correctId], candidates - 1);
+            candidates--;
+        }
+
+        int distractorCount = Math.min(OPTION_COUNT - 1, candidates);
+        List<String> options = new ArrayList<>(distractorCount + 1);
+        for (int i = 0; i < distractorCount; i++) {
+            swap(i, i + random.nextInt(candidates - i));
+            options.add(meanings[slots[i]]);
+        }
+        options.add(random.nextInt(distractorCount + 1), correctMeaning);
+        return options;
+    }
+
+    private void swap(int i, int j) {
+        int a = slots[i];
+        int b = slots[j];
+        slots[i] = b;
+        slots[j] = a;
+        positions[b] = i;
+        positions[a] = j;
+    }
+}
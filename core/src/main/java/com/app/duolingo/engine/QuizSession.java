@@ -0,0 +1,96 @@
+package com.app.duolingo.engine;
+
+import com.app.duolingo.models.QuizQuestion;
+import com.app.duolingo.models.Word;
+
+// One pass through a QuizQuestionDeck: the current question, which answers were right and the
+// resulting score. Questions are handed to a listener as soon as the deck has built them, so the
+// owning thread never waits; while one is on its way currentQuestion is null and answers and
+// further next calls are ignored. Only the first answer to a question counts. Not thread-safe.
+public class QuizSession {
+
+    private final QuizQuestionDeck deck;
+    private final QuizQuestionDeck.Listener listener;
+    private int index;
+    private QuizQuestion current;
+    private int correctAnswers;
+    private boolean answered;
+
+    public QuizSession(QuizQuestionDeck deck, Listener listener) {
+        this.deck = deck;
+        this.listener = (questionIndex, question) -> {
+            // A question for another index comes from a call the session has moved past
+            if (questionIndex == index && current == null) {
+                current = question;
+                listener.onQuestion(question);
+            }
+        };
+    }
+
+    public int size() {
+        return deck.size();
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    // Hands the first question to the listener, at once unless the deck had to fall back to its index
+    public void start() {
+        deck.get(index, listener);
+    }
+
+    // The question shown, or null while the next one is being built
+    public QuizQuestion currentQuestion() {
+        return current;
+    }
+
+    public Word currentWord() {
+        return deck.getWord(index);
+    }
+
+    // Whether option is the right answer to the current question
+    public boolean answer(String option) {
+        if (current == null) {
+            return false;
+        }
+        boolean correct = option.equals(current.getCorrectOption());
+        if (!answered && correct) {
+            correctAnswers++;
+        }
+        answered = true;
+        return correct;
+    }
+
+    public boolean hasNext() {
+        return index < deck.size() - 1;
+    }
+
+    // Moves on and hands the next question to the listener once it is built
+    public void next() {
+        if (current == null || !hasNext()) {
+            return;
+        }
+        index++;
+        current = null;
+        answered = false;
+        deck.get(index, listener);
+    }
+
+    public int getCorrectAnswers() {
+        return correctAnswers;
+    }
+
+    // Percentage of the deck answered correctly so far
+    public int getScore() {
+        return Scores.percent(correctAnswers, deck.size());
+    }
+
+    public void close() {
+        deck.close();
+    }
+
+    public interface Listener {
+        void onQuestion(QuizQuestion question);
+    }
+}
@@ -0,0 +1,302 @@
+package com.app.duolingo.engine;
+
+import com.app.duolingo.models.ReviewState;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// SM-2 review schedule of one course. Per-word state lives in parallel primitive arrays; cards
+// wait in an indexed min-heap by due time and move to a second heap once due, so next due card
+// and due count cost O(log n) amortized. Words enter the schedule on their first review.
+// Not thread-safe, and now is expected not to go backwards: a card seen as due stays due.
+public class ReviewScheduler {
+
+    public static final long DAY_MS = 24L * 60 * 60 * 1000;
+    // A failed card comes back within the same session
+    public static final long RELEARN_DELAY_MS = 10L * 60 * 1000;
+    public static final int MAX_GRADE = 5;
+    public static final int PASSING_GRADE = 3;
+
+    private static final float INITIAL_EASE = 2.5f;
+    private static final float MIN_EASE = 1.3f;
+    private static final int FORMAT_VERSION = 1;
+
+    private final Map<String, Integer> indexOf = new HashMap<>();
+    private String[] wordIds;
+    private float[] ease;
+    private int[] intervalDays;
+    private int[] repetitions;
+    private long[] dueAt;
+    private boolean[] dirty;
+    private int size;
+
+    private final DueHeap upcoming = new DueHeap();
+    private final DueHeap due = new DueHeap();
+
+    public ReviewScheduler() {
+        this(16);
+    }
+
+    private ReviewScheduler(int capacity) {
+        allocate(Math.max(capacity, 16));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(String wordId) {
+        return indexOf.containsKey(wordId);
+    }
+
+    // grade from 0 (blackout) to MAX_GRADE (perfect); below PASSING_GRADE the card is relearned
+    public void review(String wordId, int grade, long now) {
+        if (grade < 0 || grade > MAX_GRADE) {
+            throw new IllegalArgumentException("Grade " + grade + " out of 0.." + MAX_GRADE);
+        }
+        Integer index = indexOf.get(wordId);
+        int card = index != null ? index : add(wordId);
+        upcoming.remove(card);
+        due.remove(card);
+
+        int quality = MAX_GRADE - grade;
+        ease[card] = Math.max(MIN_EASE, ease[card] + 0.1f - quality * (0.08f + quality * 0.02f));
+        if (grade < PASSING_GRADE) {
+            repetitions[card] = 0;
+            intervalDays[card] = 0;
+            dueAt[card] = now + RELEARN_DELAY_MS;
+        } else {
+            if (repetitions[card] == 0) {
+                intervalDays[card] = 1;
+            } else if (repetitions[card] == 1) {
+                intervalDays[card] = 6;
+            } else {
+                intervalDays[card] = Math.round(intervalDays[card] * ease[card]);
+            }
+            repetitions[card]++;
+            dueAt[card] = now + intervalDays[card] * DAY_MS;
+        }
+        dirty[card] = true;
+        upcoming.push(card);
+    }
+
+    public int dueCount(long now) {
+        promote(now);
+        return due.size;
+    }
+
+    // The most overdue card, or null when nothing is due
+    public String nextDue(long now) {
+        promote(now);
+        return due.size > 0 ? wordIds[due.cards[0]] : null;
+    }
+
+    // Up to limit due cards, most overdue first; O(limit log n)
+    public List<String> dueWordIds(long now, int limit) {
+        promote(now);
+        int count = Math.min(limit, due.size);
+        int[] taken = new int[count];
+        List<String> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            taken[i] = due.pop();
+            result.add(wordIds[taken[i]]);
+        }
+        for (int card : taken) {
+            due.push(card);
+        }
+        return result;
+    }
+
+    public ReviewState getState(String wordId) {
+        Integer card = indexOf.get(wordId);
+        return card != null ? state(card) : null;
+    }
+
+    // States changed since they were last marked synced
+    public List<ReviewState> dirtyStates() {
+        List<ReviewState> states = new ArrayList<>();
+        for (int card = 0; card < size; card++) {
+            if (dirty[card]) {
+                states.add(state(card));
+            }
+        }
+        return states;
+    }
+
+    // Clears the dirty flag of each state the backend accepted, unless the word was reviewed again since
+    public void markSynced(List<ReviewState> states) {
+        for (ReviewState state : states) {
+            Integer card = indexOf.get(state.getWordId());
+            if (card != null && dueAt[card] == state.getDueAt() && repetitions[card] == state.getRepetitions()) {
+                dirty[card] = false;
+            }
+        }
+    }
+
+    // Remote state wins for words that have no unsynced local review
+    public void merge(ReviewState state) {
+        Integer index = indexOf.get(state.getWordId());
+        if (index != null && dirty[index]) {
+            return;
+        }
+        int card = index != null ? index : add(state.getWordId());
+        upcoming.remove(card);
+        due.remove(card);
+        ease[card] = (float) state.getEase();
+        intervalDays[card] = state.getIntervalDays();
+        repetitions[card] = state.getRepetitions();
+        dueAt[card] = state.getDueAt();
+        upcoming.push(card);
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(size);
+        for (int card = 0; card < size; card++) {
+            out.writeUTF(wordIds[card]);
+            out.writeFloat(ease[card]);
+            out.writeInt(intervalDays[card]);
+            out.writeInt(repetitions[card]);
+            out.writeLong(dueAt[card]);
+            out.writeBoolean(dirty[card]);
+        }
+    }
+
+    public static ReviewScheduler readFrom(DataInput in) throws IOException {
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported review schedule format " + version);
+        }
+        int count = in.readInt();
+        ReviewScheduler scheduler = new ReviewScheduler(count);
+        for (int i = 0; i < count; i++) {
+            int card = scheduler.add(in.readUTF());
+            scheduler.ease[card] = in.readFloat();
+            scheduler.intervalDays[card] = in.readInt();
+            scheduler.repetitions[card] = in.readInt();
+            scheduler.dueAt[card] = in.readLong();
+            scheduler.dirty[card] = in.readBoolean();
+            scheduler.upcoming.push(card);
+        }
+        return scheduler;
+    }
+
+    private int add(String wordId) {
+        if (size == wordIds.length) {
+            allocate(size * 2);
+        }
+        int card = size++;
+        wordIds[card] = wordId;
+        ease[card] = INITIAL_EASE;
+        indexOf.put(wordId, card);
+        return card;
+    }
+
+    private void allocate(int capacity) {
+        wordIds = wordIds == null ? new String[capacity] : Arrays.copyOf(wordIds, capacity);
+        ease = ease == null ? new float[capacity] : Arrays.copyOf(ease, capacity);
+        intervalDays = intervalDays == null ? new int[capacity] : Arrays.copyOf(intervalDays, capacity);
+        repetitions = repetitions == null ? new int[capacity] : Arrays.copyOf(repetitions, capacity);
+        dueAt = dueAt == null ? new long[capacity] : Arrays.copyOf(dueAt, capacity);
+        dirty = dirty == null ? new boolean[capacity] : Arrays.copyOf(dirty, capacity);
+        upcoming.grow(capacity);
+        due.grow(capacity);
+    }
+
+    private void promote(long now) {
+        while (upcoming.size > 0 && dueAt[upcoming.cards[0]] <= now) {
+            due.push(upcoming.pop());
+        }
+    }
+
+    private ReviewState state(int card) {
+        return new ReviewState(wordIds[card], ease[card], intervalDays[card], repetitions[card], dueAt[card]);
+    }
+
+    // Binary min-heap of card indexes by dueAt; positions allows removing any card in O(log n)
+    private final class DueHeap {
+        int[] cards = new int[0];
+        int[] positions = new int[0];
+        int size;
+
+        void grow(int capacity) {
+            int oldCapacity = positions.length;
+            cards = Arrays.copyOf(cards, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+            Arrays.fill(positions, oldCapacity, capacity, -1);
+        }
+
+        void push(int card) {
+            cards[size] = card;
+            positions[card] = size;
+            siftUp(size++);
+        }
+
+        int pop() {
+            int card = cards[0];
+            removeAt(0);
+            return card;
+        }
+
+        void remove(int card) {
+            if (positions[card] >= 0) {
+                removeAt(positions[card]);
+            }
+        }
+
+        private void removeAt(int position) {
+            positions[cards[position]] = -1;
+            size--;
+            if (position == size) {
+                return;
+            }
+            cards[position] = cards[size];
+            positions[cards[position]] = position;
+            siftDown(position);
+            siftUp(position);
+        }
+
+        private void siftUp(int position) {
+            int card = cards[position];
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (dueAt[cards[parent]] <= dueAt[card]) {
+                    break;
+                }
+                place(cards[parent], position);
+                position = parent;
+            }
+            place(card, position);
+        }
+
+        private void siftDown(int position) {
+            int card = cards[position];
+            while (true) {
+                int child = 2 * position + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && dueAt[cards[child + 1]] < dueAt[cards[child]]) {
+                    child++;
+                }
+                if (dueAt[card] <= dueAt[cards[child]]) {
+                    break;
+                }
+                place(cards[child], position);
+                position = child;
+            }
+            place(card, position);
+        }
+
+        private void place(int card, int position) {
+            cards[position] = card;
+            positions[card] = position;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.app.duolingo.engine;
+
+// Score arithmetic shared by the study sessions
+public final class Scores {
+
+    private Scores() {
+    }
+
+    // Whole percent of part in total, rounded down; 0 for an empty total
+    public static int percent(int part, int total) {
+        return total > 0 ? (part * 100) / total : 0;
+    }
+}
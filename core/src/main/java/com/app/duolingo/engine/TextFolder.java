@@ -0,0 +1,137 @@
+package com.app.duolingo.engine;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+
+// Folds text so that spellings a learner would consider the same compare equal: compatibility
+// decomposition (NFKD, so full-width and ligature forms match their plain letters), diacritics
+// dropped, full case folding and whitespace collapsed and trimmed. Folding is done char by char,
+// memoized per BMP char, so fold() reuses this folder's buffer and, once every char seen has been
+// folded before, allocates nothing. Instances are not thread-safe.
+public class TextFolder {
+
+    // Per BMP char: 0 while unknown, otherwise ((length + 1) << 24) | payload, where payload is
+    // the folded char for length 1 and an offset into expansionPool for longer foldings
+    private static final int[] FOLDS = new int[Character.MAX_VALUE + 1];
+    private static final int SPACE = (2 << 24) | ' ';
+    private static char[] expansionPool = new char[256];
+    private static int expansionPoolSize;
+
+    private char[] chars = new char[32];
+
+    // The folded form as a string; allocates, so meant for deck load and display
+    public static String normalize(CharSequence text) {
+        TextFolder folder = new TextFolder();
+        return new String(folder.chars, 0, folder.fold(text));
+    }
+
+    // Folds text into chars(), reusing the buffer; returns the folded length
+    public int fold(CharSequence text) {
+        int length = 0;
+        boolean pendingSpace = false;
+        int textLength = text.length();
+        if (chars.length < textLength + 1) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, textLength + 1));
+        }
+        for (int i = 0; i < textLength; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80 && c > ' ') {
+                // Printable ASCII folds to itself or its lower case
+                if (pendingSpace) {
+                    chars[length++] = ' ';
+                    pendingSpace = false;
+                }
+                chars[length++] = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+                continue;
+            }
+            int fold = fold(text, i);
+            if (Character.isHighSurrogate(c) && i + 1 < textLength) {
+                i++;
+            }
+            if (fold == SPACE) {
+                pendingSpace = length > 0;
+                continue;
+            }
+            int foldLength = (fold >>> 24) - 1;
+            if (foldLength == 0) {
+                continue;
+            }
+            if (chars.length < length + foldLength + 1) {
+                chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + foldLength + 1));
+            }
+            if (pendingSpace) {
+                chars[length++] = ' ';
+                pendingSpace = false;
+            }
+            if (foldLength == 1) {
+                chars[length++] = (char) (fold & 0xFFFFFF);
+            } else {
+                synchronized (TextFolder.class) {
+                    System.arraycopy(expansionPool, fold & 0xFFFFFF, chars, length, foldLength);
+                }
+                length += foldLength;
+            }
+        }
+        return length;
+    }
+
+    // The buffer filled by the last fold(); valid up to the length it returned
+    public char[] chars() {
+        return chars;
+    }
+
+    // Encoded folding of the char (or surrogate pair) at index; whitespace folds to a single space
+    private static int fold(CharSequence text, int index) {
+        char c = text.charAt(index);
+        if (Character.isHighSurrogate(c) && index + 1 < text.length() && Character.isLowSurrogate(text.charAt(index + 1))) {
+            // Supplementary characters are rare in answers and folded without the table
+            return encode(foldSlow(new String(new char[] {c, text.charAt(index + 1)})));
+        }
+        int fold = FOLDS[c];
+        if (fold == 0) {
+            fold = encode(foldSlow(String.valueOf(c)));
+            FOLDS[c] = fold;
+        }
+        return fold;
+    }
+
+    private static String foldSlow(String text) {
+        int codePoint = text.codePointAt(0);
+        if (Character.isWhitespace(codePoint) || Character.isSpaceChar(codePoint)) {
+            return " ";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        StringBuilder stripped = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            int type = Character.getType(c);
+            if (type != Character.NON_SPACING_MARK && type != Character.ENCLOSING_MARK) {
+                stripped.append(c);
+            }
+        }
+        // Upper then lower case gives full folding, e.g. a sharp s becomes "ss"
+        String folded = stripped.toString().toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+        for (int i = 0; i < folded.length(); i++) {
+            if (Character.isWhitespace(folded.charAt(i))) {
+                return " ";
+            }
+        }
+        return folded;
+    }
+
+    private static int encode(String folded) {
+        if (folded.length() == 1) {
+            return (2 << 24) | folded.charAt(0);
+        }
+        synchronized (TextFolder.class) {
+            if (expansionPoolSize + folded.length() > expansionPool.length) {
+                expansionPool = Arrays.copyOf(expansionPool, Math.max(expansionPool.length * 2, expansionPoolSize + folded.length()));
+            }
+            int offset = expansionPoolSize;
+            folded.getChars(0, folded.length(), expansionPool, offset);
+            expansionPoolSize += folded.length();
+            return ((folded.length() + 1) << 24) | offset;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.app.duolingo.engine;
+
+import com.app.duolingo.models.Word;
+
+import java.util.List;
+
+// One pass through a word-solve deck: the learner types the English form of each meaning.
+// Answers are compared with AnswerMatcher, so case, accents and, for longer words, a typo are
+// forgiven; PrefixTrie drives the feedback while typing. Only the first correct check of a word
+// counts towards the score. Not thread-safe.
+public class WordSolveSession {
+
+    // Answers of at least TYPO_MIN_LENGTH folded chars may be off by MAX_TYPOS edits
+    public static final int MAX_TYPOS = 1;
+    public static final int TYPO_MIN_LENGTH = 5;
+
+    public static final int WRONG = 0;
+    // Right apart from a typo
+    public static final int ALMOST = 1;
+    public static final int CORRECT = 2;
+
+    private final List<Word> words;
+    private final AnswerMatcher answerMatcher;
+    private final PrefixTrie vocabulary;
+    private int index;
+    private int correctAnswers;
+    private boolean solved;
+
+    public WordSolveSession(List<Word> words) {
+        this.words = words;
+        this.answerMatcher = new AnswerMatcher(words);
+        this.vocabulary = new PrefixTrie(words);
+    }
+
+    public int size() {
+        return words.size();
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Word currentWord() {
+        return words.get(index);
+    }
+
+    // WRONG, ALMOST or CORRECT
+    public int check(CharSequence typed) {
+        int maxTypos = answerMatcher.keyLength(index) >= TYPO_MIN_LENGTH ? MAX_TYPOS : 0;
+        int edits = answerMatcher.distance(index, typed, maxTypos);
+        if (edits > maxTypos) {
+            return WRONG;
+        }
+        if (!solved) {
+            solved = true;
+            correctAnswers++;
+        }
+        return edits == 0 ? CORRECT : ALMOST;
+    }
+
+    // PrefixTrie.OFF_TRACK, ON_TRACK or COMPLETE for text typed so far
+    public int typingStatus(CharSequence typed) {
+        return vocabulary.status(typed);
+    }
+
+    public List<String> completions(CharSequence typed, int limit) {
+        return vocabulary.completions(typed, limit);
+    }
+
+    public boolean hasNext() {
+        return index < words.size() - 1;
+    }
+
+    public Word next() {
+        index++;
+        solved = false;
+        return currentWord();
+    }
+
+    public int getCorrectAnswers() {
+        return correctAnswers;
+    }
+
+    public int getScore() {
+        return Scores.percent(correctAnswers, words.size());
+    }
+}
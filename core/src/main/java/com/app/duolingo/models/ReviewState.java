@@ -0,0 +1,63 @@
+package com.app.duolingo.models;
+
+public class ReviewState {
+    private String wordId;
+    private double ease;
+    private int intervalDays;
+    private int repetitions;
+    private long dueAt;
+
+    // Constructor
+    public ReviewState(String wordId, double ease, int intervalDays, int repetitions, long dueAt) {
+        this.wordId = wordId;
+        this.ease = ease;
+        this.intervalDays = intervalDays;
+        this.repetitions = repetitions;
+        this.dueAt = dueAt;
+    }
+
+    // Default constructor
+    public ReviewState() {
+    }
+
+    // Getters and setters
+    public String getWordId() {
+        return wordId;
+    }
+
+    public void setWordId(String wordId) {
+        this.wordId = wordId;
+    }
+
+    public double getEase() {
+        return ease;
+    }
+
+    public void setEase(double ease) {
+        this.ease = ease;
+    }
+
+    public int getIntervalDays() {
+        return intervalDays;
+    }
+
+    public void setIntervalDays(int intervalDays) {
+        this.intervalDays = intervalDays;
+    }
+
+    public int getRepetitions() {
+        return repetitions;
+    }
+
+    public void setRepetitions(int repetitions) {
+        this.repetitions = repetitions;
+    }
+
+    public long getDueAt() {
+        return dueAt;
+    }
+
+    public void setDueAt(long dueAt) {
+        this.dueAt = dueAt;
+    }
+}
@@ -6,6 +6,7 @@ public class Word {
     private String meaning;
     private String pronounce;
     private String sound;  // Assuming this is a URL or file path
+    private long updatedAt; // Set on course bundle entries, 0 elsewhere
 
     // Constructor
     public Word(String id, String english, String meaning, String pronounce, String sound) {
@@ -60,4 +61,12 @@ public class Word {
     public void setSound(String sound) {
         this.sound = sound;
     }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
@@ -0,0 +1,91 @@
+package com.app.duolingo.engine;
+
+import com.app.duolingo.models.Word;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class AnswerMatcherTest {
+
+    private static AnswerMatcher matcher(String... englishForms) {
+        Word[] words = new Word[englishForms.length];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = new Word("w" + i, englishForms[i], "meaning" + i, "", "");
+        }
+        return new AnswerMatcher(Arrays.asList(words));
+    }
+
+    @Test
+    public void matches_acceptsEquivalentSpellingsOnly() {
+        AnswerMatcher matcher = matcher("Na\u00efve", "ice cream");
+        assertTrue(matcher.matches(0, "naive"));
+        assertTrue(matcher.matches(0, " NA\u00cfVE "));
+        assertTrue(matcher.matches(1, "Ice   Cream"));
+        assertFalse(matcher.matches(1, "icecream"));
+        assertFalse(matcher.matches(0, "nave"));
+        assertFalse(matcher.matches(0, ""));
+    }
+
+    @Test
+    public void distance_isBoundedLevenshtein() {
+        AnswerMatcher matcher = matcher("kitten", "book");
+        assertEquals(0, matcher.distance(0, "Kitten", 2));
+        assertEquals(1, matcher.distance(0, "kiten", 2));
+        assertEquals(2, matcher.distance(0, "kittne", 2));
+        assertEquals(3, matcher.distance(0, "sitting", 3));
+        assertEquals(3, matcher.distance(0, "sitting", 2));
+        assertEquals(2, matcher.distance(1, "back", 2));
+        assertEquals(2, matcher.distance(1, "b", 1));
+    }
+
+    @Test
+    public void distance_agreesWithFullLevenshtein() {
+        Random random = new Random(7);
+        String alphabet = "abc\u00e9 ";
+        for (int round = 0; round < 2000; round++) {
+            String key = randomText(random, alphabet);
+            String typed = randomText(random, alphabet);
+            AnswerMatcher matcher = matcher(key);
+            int expected = levenshtein(TextFolder.normalize(key), TextFolder.normalize(typed));
+            for (int maxEdits = 0; maxEdits <= 3; maxEdits++) {
+                assertEquals(Math.min(expected, maxEdits + 1), matcher.distance(0, typed, maxEdits));
+            }
+        }
+    }
+
+    @Test
+    public void emptyDeck_hasNoKeys() {
+        assertEquals(0, new AnswerMatcher(Collections.<Word>emptyList()).size());
+    }
+
+    private static String randomText(Random random, String alphabet) {
+        StringBuilder text = new StringBuilder();
+        int length = random.nextInt(8);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(d[i - 1][j - 1] + cost, Math.min(d[i - 1][j], d[i][j - 1]) + 1);
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
@@ -0,0 +1,62 @@
+package com.app.duolingo.engine;
+
+import com.app.duolingo.models.Word;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PrefixTrieTest {
+
+    private static PrefixTrie trie(String... englishForms) {
+        List<Word> words = new ArrayList<>();
+        for (int i = 0; i < englishForms.length; i++) {
+            words.add(new Word("w" + i, englishForms[i], "meaning" + i, "", ""));
+        }
+        return new PrefixTrie(words);
+    }
+
+    @Test
+    public void status_tracksTypedPrefixes() {
+        PrefixTrie trie = trie("apple", "Apply", "app", "banana");
+        assertEquals(PrefixTrie.ON_TRACK, trie.status(""));
+        assertEquals(PrefixTrie.ON_TRACK, trie.status("ap"));
+        assertEquals(PrefixTrie.COMPLETE, trie.status("APP"));
+        assertEquals(PrefixTrie.COMPLETE, trie.status("apply"));
+        assertEquals(PrefixTrie.OFF_TRACK, trie.status("apq"));
+        assertEquals(PrefixTrie.OFF_TRACK, trie.status("bananas"));
+    }
+
+    @Test
+    public void status_foldsTypedText() {
+        PrefixTrie trie = trie("caf\u00e9 au lait");
+        assertEquals(PrefixTrie.ON_TRACK, trie.status("Cafe  a"));
+        assertEquals(PrefixTrie.COMPLETE, trie.status("\uff23afe au lait "));
+    }
+
+    @Test
+    public void completions_areAlphabeticalAndLimited() {
+        PrefixTrie trie = trie("apply", "banana", "apple", "app", "applesauce", "apricot");
+        assertEquals(Arrays.asList("app", "apple", "applesauce", "apply", "apricot"), trie.completions("ap", 10));
+        assertEquals(Arrays.asList("app", "apple"), trie.completions("ap", 2));
+        assertEquals(Collections.singletonList("banana"), trie.completions("B", 3));
+        assertTrue(trie.completions("c", 3).isEmpty());
+    }
+
+    @Test
+    public void completions_returnTheOriginalSpelling() {
+        PrefixTrie trie = trie("Na\u00efve");
+        assertEquals(Collections.singletonList("Na\u00efve"), trie.completions("nai", 1));
+    }
+
+    @Test
+    public void sharedPrefixes_shareNodes() {
+        // root + "car" + "d" + "t" + "s"
+        assertEquals(7, trie("card", "cart", "cars", "car").nodeCount());
+    }
+}
@@ -0,0 +1,85 @@
+package com.app.duolingo.engine;
+
+import com.app.duolingo.models.QuizQuestion;
+import com.app.duolingo.models.Word;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class QuizQuestionDeckTest {
+
+    private static List<Word> deck(int size, int distinctMeanings) {
+        List<Word> words = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            words.add(new Word("w" + i, "english" + i, "meaning" + (i % distinctMeanings), "", ""));
+        }
+        return words;
+    }
+
+    @Test
+    public void everyWordIsAskedExactlyOnce() {
+        QuizQuestionDeck quizDeck = new QuizQuestionDeck(deck(200, 50), new Random(1));
+        Set<String> asked = new HashSet<>();
+        for (int i = 0; i < quizDeck.size(); i++) {
+            QuizQuestion question = quizDeck.get(i);
+            assertTrue(asked.add(question.getQuestion()));
+            assertTrue(question.getOptions().contains(question.getCorrectOption()));
+            assertEquals(QuizQuestionGenerator.OPTION_COUNT, new HashSet<>(question.getOptions()).size());
+        }
+        assertEquals(200, asked.size());
+        quizDeck.close();
+    }
+
+    @Test
+    public void sharedMeanings_fallBackToTheIndex() {
+        // Four distinct meanings among many words: probing rarely finds three distractors
+        QuizQuestionDeck quizDeck = new QuizQuestionDeck(deck(1000, 4), new Random(2));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(4, new HashSet<>(quizDeck.get(i).getOptions()).size());
+        }
+        quizDeck.close();
+    }
+
+    @Test
+    public void smallDeck_isServed() {
+        QuizQuestionDeck quizDeck = new QuizQuestionDeck(deck(2, 2), new Random(3));
+        assertEquals(2, quizDeck.get(0).getOptions().size());
+        assertEquals(2, quizDeck.get(1).getOptions().size());
+        quizDeck.close();
+    }
+
+    @Test
+    public void firstQuestion_isReadyWithoutTheWorker() {
+        QuizQuestionDeck quizDeck = new QuizQuestionDeck(deck(100000, 100000), new Random(4));
+        assertNotNull(quizDeck.poll(0));
+        quizDeck.close();
+    }
+
+    @Test
+    public void laterQuestions_reachTheListenerOnTheCallbackExecutor() throws InterruptedException {
+        BlockingQueue<Runnable> mainThread = new LinkedBlockingQueue<>();
+        List<Word> words = deck(50, 50);
+        QuizQuestionDeck quizDeck = new QuizQuestionDeck(words, words, new Random(5), mainThread::add);
+        List<Integer> delivered = new ArrayList<>();
+        quizDeck.get(0, (index, question) -> delivered.add(index));
+        assertEquals(1, delivered.size());
+        for (int i = 1; i < 10; i++) {
+            quizDeck.get(i, (index, question) -> delivered.add(index));
+            if (delivered.size() == i) {
+                mainThread.poll(2, TimeUnit.SECONDS).run();
+            }
+            assertEquals(Integer.valueOf(i), delivered.get(i));
+        }
+        quizDeck.close();
+    }
+}
@@ -0,0 +1,111 @@
+package com.app.duolingo.engine;
+
+import com.app.duolingo.models.QuizQuestion;
+import com.app.duolingo.models.Word;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class QuizQuestionGeneratorTest {
+
+    private static List<Word> deck(String... meanings) {
+        List<Word> words = new ArrayList<>();
+        for (int i = 0; i < meanings.length; i++) {
+            words.add(new Word("w" + i, "english" + i, meanings[i], "", ""));
+        }
+        return words;
+    }
+
+    @Test
+    public void options_areDistinctAndContainCorrectMeaning() {
+        List<Word> words = deck("a", "b", "c", "d", "e", "f", "g", "h");
+        QuizQuestionGenerator generator = new QuizQuestionGenerator(words, new Random(1));
+        for (int round = 0; round < 1000; round++) {
+            Word word = words.get(round % words.size());
+            List<String> options = generator.generateOptions(word);
+            assertEquals(QuizQuestionGenerator.OPTION_COUNT, options.size());
+            assertEquals(options.size(), new HashSet<>(options).size());
+            assertTrue(options.contains(word.getMeaning()));
+        }
+    }
+
+    @Test
+    public void duplicateMeanings_areNeverOfferedTwice() {
+        List<Word> words = deck("a", "a", "a", "a", "a", "b", "b", "c", "d");
+        QuizQuestionGenerator generator = new QuizQuestionGenerator(words, new Random(2));
+        assertEquals(4, generator.getDistinctMeaningCount());
+        for (Word word : words) {
+            List<String> options = generator.generateOptions(word);
+            assertEquals(4, options.size());
+            assertEquals(4, new HashSet<>(options).size());
+        }
+    }
+
+    @Test
+    public void smallDeck_getsFewerOptions() {
+        List<Word> words = deck("a", "b", "a");
+        QuizQuestionGenerator generator = new QuizQuestionGenerator(words, new Random(3));
+        List<String> options = generator.generateOptions(words.get(0));
+        assertEquals(2, options.size());
+        assertTrue(options.contains("a"));
+        assertTrue(options.contains("b"));
+
+        QuizQuestionGenerator single = new QuizQuestionGenerator(deck("only"), new Random(4));
+        assertEquals(1, single.generateOptions(new Word("x", "x", "only", "", "")).size());
+    }
+
+    @Test
+    public void correctOption_isSpreadOverAllPositions() {
+        List<Word> words = deck("a", "b", "c", "d", "e");
+        QuizQuestionGenerator generator = new QuizQuestionGenerator(words, new Random(5));
+        int[] counts = new int[QuizQuestionGenerator.OPTION_COUNT];
+        for (int round = 0; round < 4000; round++) {
+            counts[generator.generateOptions(words.get(0)).indexOf("a")]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 800);
+        }
+    }
+
+    @Test
+    public void wordsWithoutAMeaning_areNeverOfferedAsDistractors() {
+        List<Word> words = deck("a", null, "b", null, "c", "d");
+        QuizQuestionGenerator generator = new QuizQuestionGenerator(words, new Random(7));
+        assertEquals(4, generator.getDistinctMeaningCount());
+        for (int round = 0; round < 50; round++) {
+            for (Word word : words) {
+                List<String> options = generator.generateOptions(word);
+                assertTrue(options.contains(word.getMeaning()));
+                if (word.getMeaning() != null) {
+                    assertFalse(options.contains(null));
+                    assertEquals(4, options.size());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void probe_skipsWordsWithoutAMeaning() {
+        List<Word> words = deck("a", null, "b", null, "c", "d", null, "e");
+        Random random = new Random(6);
+        for (Word word : words) {
+            for (int round = 0; round < 50; round++) {
+                QuizQuestion question = QuizQuestionGenerator.probe(words, word, random, 32);
+                if (question == null) {
+                    continue;
+                }
+                assertEquals(QuizQuestionGenerator.OPTION_COUNT, question.getOptions().size());
+                assertTrue(question.getOptions().contains(word.getMeaning()));
+                for (String option : question.getOptions()) {
+                    assertTrue(option != null || word.getMeaning() == null);
+                }
+            }
+        }
+    }
+}
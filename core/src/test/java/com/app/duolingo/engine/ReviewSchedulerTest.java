@@ -0,0 +1,123 @@
+package com.app.duolingo.engine;
+
+import com.app.duolingo.models.ReviewState;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ReviewSchedulerTest {
+
+    private static final long DAY = ReviewScheduler.DAY_MS;
+
+    @Test
+    public void passingReviews_followSm2Intervals() {
+        ReviewScheduler scheduler = new ReviewScheduler();
+        scheduler.review("w1", 5, 0);
+        assertEquals(1, scheduler.getState("w1").getIntervalDays());
+        scheduler.review("w1", 5, DAY);
+        assertEquals(6, scheduler.getState("w1").getIntervalDays());
+        scheduler.review("w1", 5, 7 * DAY);
+        ReviewState state = scheduler.getState("w1");
+        assertEquals(Math.round(6 * state.getEase()), state.getIntervalDays());
+        assertEquals(7 * DAY + state.getIntervalDays() * DAY, state.getDueAt());
+    }
+
+    @Test
+    public void failedReview_isRelearnedWithinTheSession() {
+        ReviewScheduler scheduler = new ReviewScheduler();
+        scheduler.review("w1", 4, 0);
+        scheduler.review("w1", 4, DAY);
+        scheduler.review("w1", 1, 7 * DAY);
+        ReviewState state = scheduler.getState("w1");
+        assertEquals(0, state.getRepetitions());
+        assertEquals(7 * DAY + ReviewScheduler.RELEARN_DELAY_MS, state.getDueAt());
+        assertTrue(state.getEase() < 2.5);
+    }
+
+    @Test
+    public void dueQueue_servesMostOverdueFirst() {
+        ReviewScheduler scheduler = new ReviewScheduler();
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            scheduler.review("w" + i, random.nextInt(6), random.nextInt(1000) * 60_000L);
+        }
+        long now = 2 * DAY;
+        int dueCount = scheduler.dueCount(now);
+        List<String> due = scheduler.dueWordIds(now, Integer.MAX_VALUE);
+        assertEquals(dueCount, due.size());
+        long previous = Long.MIN_VALUE;
+        for (String wordId : due) {
+            long dueAt = scheduler.getState(wordId).getDueAt();
+            assertTrue(dueAt <= now);
+            assertTrue(dueAt >= previous);
+            previous = dueAt;
+        }
+        assertEquals(due.get(0), scheduler.nextDue(now));
+
+        scheduler.review(due.get(0), 5, now);
+        assertEquals(dueCount - 1, scheduler.dueCount(now));
+    }
+
+    @Test
+    public void writeAndRead_preserveStateAndDirtyFlags() throws IOException {
+        ReviewScheduler scheduler = new ReviewScheduler();
+        for (int i = 0; i < 100; i++) {
+            scheduler.review("w" + i, i % 6, i * 1000L);
+        }
+        scheduler.markSynced(scheduler.dirtyStates().subList(0, 40));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        scheduler.writeTo(new DataOutputStream(bytes));
+        ReviewScheduler restored = ReviewScheduler.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(100, restored.size());
+        assertEquals(60, restored.dirtyStates().size());
+        for (int i = 0; i < 100; i++) {
+            ReviewState original = scheduler.getState("w" + i);
+            ReviewState copy = restored.getState("w" + i);
+            assertEquals(original.getDueAt(), copy.getDueAt());
+            assertEquals(original.getEase(), copy.getEase(), 0);
+        }
+        assertEquals(scheduler.dueCount(DAY), restored.dueCount(DAY));
+    }
+
+    @Test
+    public void markSynced_keepsWordsReviewedAgainDirty() {
+        ReviewScheduler scheduler = new ReviewScheduler();
+        scheduler.review("w1", 5, 0);
+        scheduler.review("w2", 5, 0);
+        List<ReviewState> sent = scheduler.dirtyStates();
+        scheduler.review("w1", 5, DAY);
+        scheduler.markSynced(sent);
+        assertEquals(Arrays.asList("w1"), wordIds(scheduler.dirtyStates()));
+    }
+
+    @Test
+    public void merge_skipsWordsWithUnsyncedReviews() {
+        ReviewScheduler scheduler = new ReviewScheduler();
+        scheduler.review("w1", 5, 0);
+        scheduler.merge(new ReviewState("w1", 2.0, 30, 5, 30 * DAY));
+        scheduler.merge(new ReviewState("w2", 2.0, 30, 5, 30 * DAY));
+        assertEquals(1, scheduler.getState("w1").getIntervalDays());
+        assertEquals(30 * DAY, scheduler.getState("w2").getDueAt());
+        assertEquals(Arrays.asList("w1"), wordIds(scheduler.dirtyStates()));
+    }
+
+    private static List<String> wordIds(List<ReviewState> states) {
+        String[] ids = new String[states.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = states.get(i).getWordId();
+        }
+        return Arrays.asList(ids);
+    }
+}
@@ -0,0 +1,89 @@
+package com.app.duolingo.engine;
+
+import com.app.duolingo.models.QuizQuestion;
+import com.app.duolingo.models.Word;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class StudySessionsTest {
+
+    private static List<Word> deck(int size) {
+        List<Word> words = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            words.add(new Word("w" + i, "english" + i, "meaning" + i, "", ""));
+        }
+        return words;
+    }
+
+    @Test
+    public void quizSession_countsOnlyTheFirstAnswerToAQuestion() throws InterruptedException {
+        // Stands in for the main thread: deliveries wait until the test runs them
+        BlockingQueue<Runnable> mainThread = new LinkedBlockingQueue<>();
+        List<QuizQuestion> shown = new ArrayList<>();
+        QuizQuestionDeck deck = new QuizQuestionDeck(deck(4), deck(4), new Random(1), mainThread::add);
+        QuizSession session = new QuizSession(deck, shown::add);
+        session.start();
+        assertEquals(1, shown.size());
+        QuizQuestion question = session.currentQuestion();
+        String wrong = question.getOptions().get(0).equals(question.getCorrectOption())
+                ? question.getOptions().get(1) : question.getOptions().get(0);
+        assertFalse(session.answer(wrong));
+        assertTrue(session.answer(question.getCorrectOption()));
+        assertEquals(0, session.getCorrectAnswers());
+
+        session.next();
+        if (session.currentQuestion() == null) {
+            // Still being built: answers wait for it, and a second next is ignored
+            assertFalse(session.answer("anything"));
+            session.next();
+            mainThread.poll(2, TimeUnit.SECONDS).run();
+        }
+        assertEquals(1, session.getIndex());
+        assertEquals(2, shown.size());
+        question = session.currentQuestion();
+        assertTrue(session.answer(question.getCorrectOption()));
+        assertTrue(session.answer(question.getCorrectOption()));
+        assertEquals(1, session.getCorrectAnswers());
+        assertEquals(25, session.getScore());
+        assertTrue(session.hasNext());
+        session.close();
+    }
+
+    @Test
+    public void wordSolveSession_forgivesOneTypoInLongerWordsOnly() {
+        WordSolveSession session = new WordSolveSession(Arrays.asList(
+                new Word("w0", "kitten", "meaning0", "", ""),
+                new Word("w1", "cat", "meaning1", "", "")));
+        assertEquals(WordSolveSession.ALMOST, session.check("kiten"));
+        assertEquals(WordSolveSession.CORRECT, session.check("Kitten"));
+        assertEquals(1, session.getCorrectAnswers());
+
+        session.next();
+        assertEquals(WordSolveSession.WRONG, session.check("ca"));
+        assertEquals(WordSolveSession.CORRECT, session.check("cat"));
+        assertEquals(100, session.getScore());
+        assertFalse(session.hasNext());
+    }
+
+    @Test
+    public void flashcardSession_wrapsAndReportsProgress() {
+        FlashcardSession session = new FlashcardSession(deck(4), new Random(1));
+        assertEquals(4, session.size());
+        assertEquals(1, session.nextPosition(0));
+        assertEquals(0, session.nextPosition(3));
+        assertEquals(0, session.previousPosition(0));
+        assertEquals(25, session.progressAfter(0));
+        assertEquals(75, session.progressAfter(2));
+        assertEquals(100, session.progressAfter(3));
+    }
+}
@@ -0,0 +1,29 @@
+package com.app.duolingo.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TextFolderTest {
+
+    @Test
+    public void normalize_foldsCaseAccentsWidthAndWhitespace() {
+        assertEquals("cafe", TextFolder.normalize("Caf\u00e9"));
+        assertEquals("cafe", TextFolder.normalize("Cafe\u0301"));
+        assertEquals("apple", TextFolder.normalize("\uff21\uff30\uff30\uff2c\uff25"));
+        assertEquals("ice cream", TextFolder.normalize("  Ice \t\u00a0 Cream\u3000"));
+        assertEquals("strasse", TextFolder.normalize("Stra\u00dfe"));
+        assertEquals("office", TextFolder.normalize("o\ufb03ce"));
+    }
+
+    @Test
+    public void fold_reusesTheBufferAcrossCalls() {
+        TextFolder folder = new TextFolder();
+        int length = folder.fold("Caf\u00e9 au lait");
+        assertEquals("cafe au lait", new String(folder.chars(), 0, length));
+        char[] buffer = folder.chars();
+        length = folder.fold("  TEA ");
+        assertSame(buffer, folder.chars());
+        assertEquals("tea", new String(folder.chars(), 0, length));
+    }
+}
@@ -16,3 +16,4 @@ dependencyResolutionManagement {
 
 rootProject.name = "Duolingo"
 include(":app")
+include(":core")